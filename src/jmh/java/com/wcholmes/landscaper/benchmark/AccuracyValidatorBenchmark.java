@@ -0,0 +1,37 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.util.PackedPositions;
+import com.wcholmes.landscaper.common.util.Shape;
+import com.wcholmes.landscaper.server.analysis.AccuracyValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccuracyValidator.captureSnapshot over a circle footprint, as /landscaper naturalize does before and after.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccuracyValidatorBenchmark {
+
+    @Param({"PLAINS", "STONE_MOUNTAIN"})
+    public SyntheticTerrain.Preset preset;
+
+    @Param({"10", "30"})
+    public int radius;
+
+    private SyntheticTerrain terrain;
+    private PackedPositions positions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        terrain = new SyntheticTerrain(preset, 42L);
+        positions = Shape.CIRCLE.positions(terrain.center(), radius);
+    }
+
+    @Benchmark
+    public AccuracyValidator.Snapshot captureSnapshot() {
+        return AccuracyValidator.captureSnapshot(terrain, positions);
+    }
+}
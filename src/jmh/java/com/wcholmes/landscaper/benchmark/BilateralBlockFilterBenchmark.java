@@ -0,0 +1,51 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import com.wcholmes.landscaper.server.analysis.BilateralBlockFilter;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Blocks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BilateralBlockFilter.filterBlock over the surface of a radius-8 square (289 columns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BilateralBlockFilterBenchmark {
+
+    private static final int RADIUS = 8;
+
+    @Param({"PLAINS", "STONE_MOUNTAIN"})
+    public SyntheticTerrain.Preset preset;
+
+    private SyntheticTerrain terrain;
+    private BlockPos[] surfaces;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        terrain = new SyntheticTerrain(preset, 42L);
+        BlockPos center = terrain.center();
+
+        List<BlockPos> found = new ArrayList<>();
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                BlockPos surface = TerrainUtils.findSurface(terrain, center.offset(x, 0, z));
+                if (surface != null) found.add(surface);
+            }
+        }
+        surfaces = found.toArray(new BlockPos[0]);
+    }
+
+    @Benchmark
+    public void filterBlock(Blackhole blackhole) {
+        for (BlockPos surface : surfaces) {
+            blackhole.consume(BilateralBlockFilter.filterBlock(terrain, surface, Blocks.GRASS_BLOCK));
+        }
+    }
+}
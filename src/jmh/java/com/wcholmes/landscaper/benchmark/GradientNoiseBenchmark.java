@@ -0,0 +1,40 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.util.GradientNoise;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Height-offset grid for a radius-32 footprint: batch-filled gradient noise against the
+ * per-column sin + cos it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradientNoiseBenchmark {
+
+    private static final int EXTENT = 32;
+    private static final int SIZE = EXTENT * 2 + 1;
+
+    @Param({"1", "3"})
+    public int octaves;
+
+    private final double[] grid = new double[SIZE * SIZE];
+
+    @Benchmark
+    public double[] gradientNoise() {
+        GradientNoise.fill(42L, -EXTENT, -EXTENT, SIZE, SIZE, 0.05, octaves, 0.5, grid);
+        return grid;
+    }
+
+    @Benchmark
+    public double[] sinCos() {
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                grid[z * SIZE + x] = Math.sin((x - EXTENT) * 0.1) + Math.cos((z - EXTENT) * 0.1);
+            }
+        }
+        return grid;
+    }
+}
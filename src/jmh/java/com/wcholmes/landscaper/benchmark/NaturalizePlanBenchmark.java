@@ -0,0 +1,52 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import com.wcholmes.landscaper.server.analysis.IntelligentNaturalizeStrategy;
+import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
+import com.wcholmes.landscaper.server.analysis.TerrainProfile;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Naturalize passes 1-5 planned against synthetic terrain, fused per column or pass by pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NaturalizePlanBenchmark {
+
+    private static final int MESSY_EDGE = 2;
+
+    @Param({"PLAINS", "STONE_MOUNTAIN", "SNOWY_PEAK"})
+    public SyntheticTerrain.Preset preset;
+
+    @Param({"16"})
+    public int radius;
+
+    @Param({"true", "false"})
+    public boolean fused;
+
+    private SyntheticTerrain terrain;
+    private BlockPos center;
+    private TerrainProfile profile;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        terrain = new SyntheticTerrain(preset, 42L);
+        center = terrain.findSurface(terrain.center());
+        profile = TerrainAnalyzer.analyze(terrain, center);
+        NaturalizationConfig.setFusedPasses(fused);
+    }
+
+    @Benchmark
+    public ChangeSet plan() {
+        ChangeSet changes = new ChangeSet();
+        IntelligentNaturalizeStrategy.plan(terrain, changes, new TerrainRandom(42L), center, radius,
+            profile, true, MESSY_EDGE);
+        return changes;
+    }
+}
@@ -0,0 +1,49 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.server.replay.OperationRecording;
+import com.wcholmes.landscaper.server.replay.ReplayHarness;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyze + plan over real operations recorded on a server (record_operations = true).
+ * Recordings are read from -Dlandscaper.recordings; with none present the benchmark is a no-op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReplayBenchmark {
+
+    // Single recording file name, or empty for every recording in the directory
+    @Param({""})
+    public String recording;
+
+    private final List<OperationRecording> recordings = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticTerrain.bootstrap();
+        File directory = new File(System.getProperty("landscaper.recordings", "recordings"));
+        for (File file : ReplayRecordings.list(directory)) {
+            if (recording.isEmpty() || file.getName().equals(recording)) {
+                recordings.add(OperationRecording.read(file));
+            }
+        }
+        if (recordings.isEmpty()) {
+            System.out.println("No recordings found in " + directory.getAbsolutePath());
+        }
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) {
+        for (OperationRecording operation : recordings) {
+            blackhole.consume(ReplayHarness.replay(operation));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.server.replay.OperationRecording;
+import com.wcholmes.landscaper.server.replay.ReplayHarness;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays every recording in a directory without a server and diffs the result against the
+ * change set the server wrote: ./gradlew replayRecordings -PrecordingsDir=<dir>
+ * Exits non-zero if any replay diverges.
+ */
+public class ReplayRecordings {
+
+    public static void main(String[] args) throws IOException {
+        File directory = new File(args.length > 0 ? args[0] : "recordings");
+        List<File> files = list(directory);
+        if (files.isEmpty()) {
+            System.out.println("No recordings in " + directory.getAbsolutePath());
+            return;
+        }
+
+        SyntheticTerrain.bootstrap();
+
+        int diverged = 0;
+        for (File file : files) {
+            OperationRecording recording = OperationRecording.read(file);
+            ReplayHarness.ReplayResult result = ReplayHarness.replay(recording);
+            System.out.printf("%s %s: %s%n", result.matches() ? "MATCH   " : "DIVERGED", file.getName(), result.getSummary());
+            if (!result.matches()) diverged++;
+        }
+
+        System.out.printf("%d/%d recordings replayed identically%n", files.size() - diverged, files.size());
+        if (diverged > 0) System.exit(1);
+    }
+
+    /**
+     * Recording files in a directory, sorted by name (missing directory = none).
+     */
+    static List<File> list(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".nbt"));
+        if (files == null) return new ArrayList<>();
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+}
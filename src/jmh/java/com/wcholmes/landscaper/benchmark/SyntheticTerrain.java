@@ -0,0 +1,38 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.server.gametest.TerrainFixture;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * The shared {@link TerrainFixture} presets, bootstrapped for use outside a running game.
+ * Same preset + seed always produces the same blocks, so benchmark runs are comparable.
+ */
+public class SyntheticTerrain extends TerrainFixture {
+
+    public static final int RADIUS = 112;   // Covers analysis radius (48) plus nearby-surface scan (48) plus kernels
+
+    private static boolean bootstrapped = false;
+
+    /**
+     * Bootstrap vanilla registries and load default safe blocks (once per JVM).
+     */
+    public static synchronized void bootstrap() {
+        if (bootstrapped) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        NaturalizationConfig.loadDefaults();
+        bootstrapped = true;
+    }
+
+    public SyntheticTerrain(Preset preset, long seed) {
+        super(preset, seed, radius());
+    }
+
+    // Registries must be bootstrapped before DenseTerrainView fills itself with air
+    private static int radius() {
+        bootstrap();
+        return RADIUS;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
+import com.wcholmes.landscaper.server.analysis.TerrainProfile;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One TerrainAnalyzer.analyze pass (48-block radius) per invocation, at full density
+ * (tolerance 0) and with adaptive early stopping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TerrainAnalyzerBenchmark {
+
+    @Param({"PLAINS", "BEACH", "STONE_MOUNTAIN", "SWAMP", "SNOWY_PEAK"})
+    public SyntheticTerrain.Preset preset;
+
+    @Param({"0.0", "0.05"})
+    public double tolerance;
+
+    private SyntheticTerrain terrain;
+    private BlockPos center;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        terrain = new SyntheticTerrain(preset, 42L);
+        center = terrain.center();
+        NaturalizationConfig.setAnalysisTolerance(tolerance);
+    }
+
+    @Benchmark
+    public TerrainProfile analyze() {
+        return TerrainAnalyzer.analyze(terrain, center);
+    }
+}
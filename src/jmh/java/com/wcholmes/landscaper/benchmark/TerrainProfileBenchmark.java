@@ -0,0 +1,45 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
+import com.wcholmes.landscaper.server.analysis.TerrainProfile;
+import net.minecraft.world.level.block.Block;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted palette sampling on a profile analyzed once from synthetic terrain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TerrainProfileBenchmark {
+
+    @Param({"PLAINS", "STONE_MOUNTAIN", "SNOWY_PEAK"})
+    public SyntheticTerrain.Preset preset;
+
+    private TerrainProfile profile;
+    private final TerrainRandom random = new TerrainRandom(42L);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticTerrain terrain = new SyntheticTerrain(preset, 42L);
+        profile = TerrainAnalyzer.analyze(terrain, terrain.center());
+    }
+
+    @Benchmark
+    public Block surfaceBlock() {
+        return profile.getConsistencyAwareSurfaceBlock(random);
+    }
+
+    @Benchmark
+    public Block subsurfaceBlock() {
+        return profile.getConsistencyAwareSubsurfaceBlock(random);
+    }
+
+    @Benchmark
+    public Block vegetation() {
+        return profile.getWeightedRandomVegetation(random);
+    }
+}
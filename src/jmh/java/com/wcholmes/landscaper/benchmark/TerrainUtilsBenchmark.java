@@ -0,0 +1,61 @@
+package com.wcholmes.landscaper.benchmark;
+
+import com.wcholmes.landscaper.common.util.MessyEdge;
+import com.wcholmes.landscaper.common.util.Shape;
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TerrainUtils.findSurface over a 33x33 column grid (fixed start and neighbour-seeded), and building a radius-20 messy-edge mask (uncached).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TerrainUtilsBenchmark {
+
+    private static final int GRID_RADIUS = 16;
+    private static final int MESSY_RADIUS = 20;
+    private static final int MESSY_EXTENSION = 2;
+
+    @Param({"PLAINS", "STONE_MOUNTAIN"})
+    public SyntheticTerrain.Preset preset;
+
+    private SyntheticTerrain terrain;
+    private BlockPos center;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        terrain = new SyntheticTerrain(preset, 42L);
+        center = terrain.center();
+    }
+
+    @Benchmark
+    public void findSurface(Blackhole blackhole) {
+        for (int x = -GRID_RADIUS; x <= GRID_RADIUS; x++) {
+            for (int z = -GRID_RADIUS; z <= GRID_RADIUS; z++) {
+                blackhole.consume(TerrainUtils.findSurface(terrain, center.offset(x, 0, z)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void findSurfaceNear(Blackhole blackhole) {
+        int nearY = center.getY();
+        for (int x = -GRID_RADIUS; x <= GRID_RADIUS; x++) {
+            for (int z = -GRID_RADIUS; z <= GRID_RADIUS; z++) {
+                int y = TerrainUtils.findSurfaceYNear(terrain, center.getX() + x, nearY, center.getZ() + z);
+                if (y != TerrainUtils.NO_SURFACE) nearY = y;
+                blackhole.consume(y);
+            }
+        }
+    }
+
+    @Benchmark
+    public Shape.Mask buildMessyEdge() {
+        return MessyEdge.build(Shape.CIRCLE, center, MESSY_RADIUS, MESSY_EXTENSION);
+    }
+}
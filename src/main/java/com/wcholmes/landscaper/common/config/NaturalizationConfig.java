@@ -57,7 +57,7 @@ public class NaturalizationConfig {
         }
     }
 
-    private static volatile Set<Block> safeBlocks = null;
+    private static volatile SafeBlockSet safeBlocks = SafeBlockSet.EMPTY;
     private static volatile int radius = 5;
     private static volatile boolean consumeResources = false;
     private static volatile boolean overworldOnly = true;
@@ -70,6 +70,13 @@ public class NaturalizationConfig {
     private static volatile int maxFlattenHeight = 50; // Maximum height difference for flatten mode (1-320)
     private static volatile int erosionStrength = 3; // Height variation strength for naturalize mode (1-10)
     private static volatile double roughnessAmount = 1.5; // Roughness multiplier for naturalize mode (0.0-5.0)
+    private static volatile double analysisTolerance = 0.05; // Stop terrain analysis once estimates are this close (0 = full sampling)
+    private static volatile boolean fusedPasses = true; // Run all naturalize passes per column in one sweep
+    private static volatile boolean deferredUpdates = true; // Skip per-block neighbour updates, settle the edit once at the end
+    private static volatile int edgeBlendWidth = 4; // Blocks inside the edge over which naturalize fades into its surroundings (0-16)
+
+    // Diagnostics
+    private static volatile boolean recordOperations = false; // Write replayable recordings of naturalize operations
 
     public static class ConfigData {
         public List<String> safe_blocks_to_replace;
@@ -85,6 +92,11 @@ public class NaturalizationConfig {
         public int max_flatten_height = 50;
         public int erosion_strength = 3;
         public double roughness_amount = 1.5;
+        public double analysis_tolerance = 0.05;
+        public boolean fused_passes = true;
+        public boolean deferred_updates = true;
+        public int edge_blend_width = 4;
+        public boolean record_operations = false;
 
         public String description = "Configuration for Naturalization Staff behavior";
         public String safe_blocks_description = "List of blocks that can be safely replaced. Use minecraft:block_name format.";
@@ -98,6 +110,11 @@ public class NaturalizationConfig {
         public String max_flatten_height_description = "Max height difference for flatten mode to check/modify (1-320 blocks)";
         public String erosion_strength_description = "Height variation strength for naturalize mode (1-10 blocks)";
         public String roughness_amount_description = "Roughness/weathering multiplier for naturalize mode (0.0-5.0)";
+        public String fused_passes_description = "If true, naturalize runs every pass on one column before moving to the next (fewer world reads). If false, each pass sweeps the whole area in turn";
+        public String deferred_updates_description = "If true, naturalize writes blocks without per-block neighbour updates and settles the edited area's shapes and borders once afterwards. If false, every block update fires immediately";
+        public String edge_blend_width_description = "Width in blocks of the band inside the edge where naturalize blends height and blocks into the untouched surroundings (0-16, 0=hard edge)";
+        public String analysis_tolerance_description = "Terrain analysis stops sampling once block frequencies are known to within this fraction (0.0-0.25, 0=always sample every 2nd column)";
+        public String record_operations_description = "If true, saves a replayable recording of every naturalize command to <world>/landscaper/recordings (diagnostics only)";
 
         public ConfigData() {}
 
@@ -191,32 +208,47 @@ public class NaturalizationConfig {
             maxFlattenHeight = Math.max(1, Math.min(320, config.max_flatten_height)); // Clamp to 1-320
             erosionStrength = Math.max(1, Math.min(10, config.erosion_strength)); // Clamp to 1-10
             roughnessAmount = Math.max(0.0, Math.min(5.0, config.roughness_amount)); // Clamp to 0.0-5.0
-
-            // Convert string IDs to blocks
-            safeBlocks = new HashSet<>();
+            analysisTolerance = Math.max(0.0, Math.min(0.25, config.analysis_tolerance)); // Clamp to 0.0-0.25
+            fusedPasses = config.fused_passes;
+            deferredUpdates = config.deferred_updates;
+            edgeBlendWidth = Math.max(0, Math.min(16, config.edge_blend_width)); // Clamp to 0-16
+            recordOperations = config.record_operations;
+
+            // Convert string IDs to blocks, then publish the compiled set in one write
+            Set<Block> blocks = new HashSet<>();
             for (String blockId : config.safe_blocks_to_replace) {
                 ResourceLocation resourceLocation = new ResourceLocation(blockId);
                 Block block = BuiltInRegistries.BLOCK.get(resourceLocation);
 
                 if (block != Blocks.AIR) {
-                    safeBlocks.add(block);
+                    blocks.add(block);
                 } else {
                     LOGGER.warn("Unknown block in config: {}", blockId);
                 }
             }
+            safeBlocks = SafeBlockSet.of(blocks);
 
             LOGGER.info("Loaded config: {} safe blocks, radius={}, consume_resources={}, overworld_only={}",
                 safeBlocks.size(), radius, consumeResources, overworldOnly);
 
         } catch (IOException e) {
             LOGGER.error("Failed to load config, using defaults", e);
-            safeBlocks = getDefaultBlocks();
+            safeBlocks = SafeBlockSet.of(getDefaultBlocks());
             radius = 5;
             consumeResources = false;
             overworldOnly = true;
         }
     }
 
+    /**
+     * Use the built-in defaults without touching the config directory.
+     * For headless callers (benchmarks, game tests) that run without FML paths.
+     */
+    public static void loadDefaults() {
+        safeBlocks = SafeBlockSet.of(getDefaultBlocks());
+        LOGGER.info("Loaded default config: {} safe blocks", safeBlocks.size());
+    }
+
     private static void createDefaultConfig(Path configPath) throws IOException {
         ConfigData defaultConfig = new ConfigData(getDefaultBlockList(), 5, false, true, true, 2, true);
         String json = GSON.toJson(defaultConfig);
@@ -232,10 +264,46 @@ public class NaturalizationConfig {
             .collect(Collectors.toSet());
     }
 
-    public static Set<Block> getSafeBlocks() {
+    public static SafeBlockSet getSafeBlocks() {
         return safeBlocks;
     }
 
+    /**
+     * Replace the safe block list in memory only (replays use the list recorded on the server).
+     */
+    public static void setSafeBlocks(Set<Block> blocks) {
+        safeBlocks = SafeBlockSet.of(blocks);
+    }
+
+    /**
+     * Replace the analysis tolerance in memory only (replays use the recorded value).
+     */
+    public static void setAnalysisTolerance(double tolerance) {
+        analysisTolerance = Math.max(0.0, Math.min(0.25, tolerance));
+    }
+
+    /**
+     * Switch between fused and pass-by-pass naturalize in memory only (replays use the recorded mode).
+     */
+    public static void setFusedPasses(boolean fused) {
+        fusedPasses = fused;
+    }
+
+    /**
+     * Replace the edge blend width in memory only (replays use the recorded value).
+     */
+    public static void setEdgeBlendWidth(int width) {
+        edgeBlendWidth = Math.max(0, Math.min(16, width));
+    }
+
+    /**
+     * Replace the height-noise settings in memory only (replays use the recorded values).
+     */
+    public static void setHeightNoise(int strength, double amount) {
+        erosionStrength = Math.max(1, Math.min(10, strength));
+        roughnessAmount = Math.max(0.0, Math.min(5.0, amount));
+    }
+
     public static int getRadius() {
         return radius;
     }
@@ -272,6 +340,11 @@ public class NaturalizationConfig {
             config.max_flatten_height = maxFlattenHeight;
             config.erosion_strength = erosionStrength;
             config.roughness_amount = roughnessAmount;
+            config.analysis_tolerance = analysisTolerance;
+            config.fused_passes = fusedPasses;
+            config.deferred_updates = deferredUpdates;
+            config.edge_blend_width = edgeBlendWidth;
+            config.record_operations = recordOperations;
 
             // Write back to file
             String updatedJson = GSON.toJson(config);
@@ -348,6 +421,26 @@ public class NaturalizationConfig {
         return roughnessAmount;
     }
 
+    public static double getAnalysisTolerance() {
+        return analysisTolerance;
+    }
+
+    public static boolean isFusedPasses() {
+        return fusedPasses;
+    }
+
+    public static boolean isDeferredUpdates() {
+        return deferredUpdates;
+    }
+
+    public static int getEdgeBlendWidth() {
+        return edgeBlendWidth;
+    }
+
+    public static boolean isRecordingOperations() {
+        return recordOperations;
+    }
+
     // Setters for new advanced settings
     public static synchronized void setMaxFlattenHeight(int height) {
         maxFlattenHeight = Math.max(1, Math.min(320, height));
@@ -0,0 +1,76 @@
+package com.wcholmes.landscaper.common.config;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, compiled form of the safe block list: one bit per global block-state id, so the
+ * surface search checks a state with a single id lookup and array read. Config loads build a
+ * complete new set and publish it in one write.
+ */
+public final class SafeBlockSet implements Predicate<BlockState> {
+    public static final SafeBlockSet EMPTY = new SafeBlockSet(Collections.emptySet(), new long[0]);
+
+    private final Set<Block> blocks;
+    private final long[] states;
+
+    private SafeBlockSet(Set<Block> blocks, long[] states) {
+        this.blocks = blocks;
+        this.states = states;
+    }
+
+    /**
+     * Every state of the given blocks.
+     */
+    public static SafeBlockSet of(Collection<Block> blocks) {
+        return of(blocks, state -> true);
+    }
+
+    /**
+     * The states of the given blocks that pass {@code filter}.
+     */
+    public static SafeBlockSet of(Collection<Block> blocks, Predicate<BlockState> filter) {
+        long[] states = new long[(Block.BLOCK_STATE_REGISTRY.size() + 63) >>> 6];
+        for (Block block : blocks) {
+            for (BlockState state : block.getStateDefinition().getPossibleStates()) {
+                if (!filter.test(state)) continue;
+                int id = Block.getId(state);
+                states[id >>> 6] |= 1L << id;
+            }
+        }
+        return new SafeBlockSet(Collections.unmodifiableSet(new LinkedHashSet<>(blocks)), states);
+    }
+
+    public boolean contains(BlockState state) {
+        int id = Block.getId(state);
+        int word = id >>> 6;
+        // Bounds check only matters for EMPTY and states registered after the set was built
+        return word < states.length && (states[word] & (1L << id)) != 0;
+    }
+
+    @Override
+    public boolean test(BlockState state) {
+        return contains(state);
+    }
+
+    public boolean contains(Block block) {
+        return blocks.contains(block);
+    }
+
+    /**
+     * The configured blocks (unmodifiable).
+     */
+    public Set<Block> blocks() {
+        return blocks;
+    }
+
+    public int size() {
+        return blocks.size();
+    }
+}
@@ -6,47 +6,47 @@ import net.minecraft.world.level.biome.Biomes;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class BiomePalette {
-    // No static Random - using ThreadLocalRandom for thread safety
+    // No shared Random - callers pass the operation's seeded generator so results are reproducible
 
-    public static Block getSurfaceBlock(Holder<Biome> biome, NaturalizationMode mode, boolean allowVariation) {
+    public static Block getSurfaceBlock(Holder<Biome> biome, NaturalizationMode mode, boolean allowVariation, RandomGenerator random) {
         // Path-only modes override biome
         if (mode.isPathOnly()) {
-            return getPathBlock(mode, allowVariation);
+            return getPathBlock(mode, allowVariation, random);
         }
 
         // Get biome-specific surface block
         // Check ocean/beach biomes first (should use sand even if not detected as underwater)
         if (biome.is(Biomes.BEACH) || biome.is(Biomes.STONY_SHORE) || biome.is(Biomes.SNOWY_BEACH)) {
-            return getBeachSurfaceBlock(allowVariation);
+            return getBeachSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.OCEAN) || biome.is(Biomes.DEEP_OCEAN) || biome.is(Biomes.COLD_OCEAN) ||
                    biome.is(Biomes.DEEP_COLD_OCEAN) || biome.is(Biomes.LUKEWARM_OCEAN) || biome.is(Biomes.DEEP_LUKEWARM_OCEAN) ||
                    biome.is(Biomes.WARM_OCEAN) || biome.is(Biomes.FROZEN_OCEAN) || biome.is(Biomes.DEEP_FROZEN_OCEAN)) {
-            return getOceanSurfaceBlock(allowVariation);
+            return getOceanSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.RIVER) || biome.is(Biomes.FROZEN_RIVER)) {
-            return getRiverSurfaceBlock(allowVariation);
+            return getRiverSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.DESERT) || biome.is(Biomes.BADLANDS) || biome.is(Biomes.ERODED_BADLANDS) || biome.is(Biomes.WOODED_BADLANDS)) {
-            return getDesertSurfaceBlock(allowVariation);
+            return getDesertSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.SAVANNA) || biome.is(Biomes.SAVANNA_PLATEAU) || biome.is(Biomes.WINDSWEPT_SAVANNA)) {
-            return getSavannaSurfaceBlock(allowVariation);
+            return getSavannaSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.TAIGA) || biome.is(Biomes.SNOWY_TAIGA) || biome.is(Biomes.OLD_GROWTH_PINE_TAIGA) || biome.is(Biomes.OLD_GROWTH_SPRUCE_TAIGA)) {
-            return getTaigaSurfaceBlock(allowVariation);
+            return getTaigaSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.JUNGLE) || biome.is(Biomes.SPARSE_JUNGLE) || biome.is(Biomes.BAMBOO_JUNGLE)) {
-            return getJungleSurfaceBlock(allowVariation);
+            return getJungleSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.MUSHROOM_FIELDS)) {
-            return getMushroomSurfaceBlock(allowVariation);
+            return getMushroomSurfaceBlock(allowVariation, random);
         } else if (biome.is(Biomes.SWAMP) || biome.is(Biomes.MANGROVE_SWAMP)) {
-            return getSwampSurfaceBlock(allowVariation);
+            return getSwampSurfaceBlock(allowVariation, random);
         } else {
             // Default: plains/forest/generic biomes
-            return getDefaultSurfaceBlock(allowVariation);
+            return getDefaultSurfaceBlock(allowVariation, random);
         }
     }
 
-    public static Block getVegetationBlock(Holder<Biome> biome) {
-        double roll = ThreadLocalRandom.current().nextDouble();
+    public static Block getVegetationBlock(Holder<Biome> biome, RandomGenerator random) {
+        double roll = random.nextDouble();
 
         if (biome.is(Biomes.DESERT) || biome.is(Biomes.BADLANDS) || biome.is(Biomes.ERODED_BADLANDS) || biome.is(Biomes.WOODED_BADLANDS)) {
             // Desert: 80% dead bush, 20% cactus
@@ -72,96 +72,96 @@ public class BiomePalette {
             // Swamp: 40% tall grass, 30% ferns, 20% mushrooms, 10% lily pads
             if (roll < 0.40) return Blocks.TALL_GRASS;
             else if (roll < 0.70) return Blocks.FERN;
-            else if (roll < 0.90) return ThreadLocalRandom.current().nextBoolean() ? Blocks.RED_MUSHROOM : Blocks.BROWN_MUSHROOM;
+            else if (roll < 0.90) return random.nextBoolean() ? Blocks.RED_MUSHROOM : Blocks.BROWN_MUSHROOM;
             else return Blocks.LILY_PAD;
         } else {
             // Default plains/forest: existing variety (grass + flowers)
-            return getDefaultVegetation();
+            return getDefaultVegetation(random);
         }
     }
 
-    private static Block getBeachSurfaceBlock(boolean allowVariation) {
+    private static Block getBeachSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.SAND;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 90% sand, 5% gravel, 5% coarse dirt
         if (roll < 0.90) return Blocks.SAND;
         else if (roll < 0.95) return Blocks.GRAVEL;
         else return Blocks.COARSE_DIRT;
     }
 
-    private static Block getOceanSurfaceBlock(boolean allowVariation) {
+    private static Block getOceanSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.SAND;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 80% sand, 15% gravel, 5% clay
         if (roll < 0.80) return Blocks.SAND;
         else if (roll < 0.95) return Blocks.GRAVEL;
         else return Blocks.CLAY;
     }
 
-    private static Block getRiverSurfaceBlock(boolean allowVariation) {
+    private static Block getRiverSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.SAND;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 70% sand, 20% gravel, 10% clay
         if (roll < 0.70) return Blocks.SAND;
         else if (roll < 0.90) return Blocks.GRAVEL;
         else return Blocks.CLAY;
     }
 
-    private static Block getDesertSurfaceBlock(boolean allowVariation) {
+    private static Block getDesertSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.SAND;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 85% sand, 10% red sand, 5% sandstone
         if (roll < 0.85) return Blocks.SAND;
         else if (roll < 0.95) return Blocks.RED_SAND;
         else return Blocks.SANDSTONE;
     }
 
-    private static Block getSavannaSurfaceBlock(boolean allowVariation) {
+    private static Block getSavannaSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.GRASS_BLOCK;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 80% grass, 15% coarse dirt, 5% red sand
         if (roll < 0.80) return Blocks.GRASS_BLOCK;
         else if (roll < 0.95) return Blocks.COARSE_DIRT;
         else return Blocks.RED_SAND;
     }
 
-    private static Block getTaigaSurfaceBlock(boolean allowVariation) {
+    private static Block getTaigaSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.GRASS_BLOCK;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 75% grass, 20% podzol, 5% coarse dirt
         if (roll < 0.75) return Blocks.GRASS_BLOCK;
         else if (roll < 0.95) return Blocks.PODZOL;
         else return Blocks.COARSE_DIRT;
     }
 
-    private static Block getJungleSurfaceBlock(boolean allowVariation) {
+    private static Block getJungleSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.GRASS_BLOCK;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 70% grass, 25% podzol, 5% mossy cobblestone
         if (roll < 0.70) return Blocks.GRASS_BLOCK;
         else if (roll < 0.95) return Blocks.PODZOL;
         else return Blocks.MOSSY_COBBLESTONE;
     }
 
-    private static Block getMushroomSurfaceBlock(boolean allowVariation) {
+    private static Block getMushroomSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.MYCELIUM;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 90% mycelium, 10% dirt
         return roll < 0.90 ? Blocks.MYCELIUM : Blocks.DIRT;
     }
 
-    private static Block getSwampSurfaceBlock(boolean allowVariation) {
+    private static Block getSwampSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.GRASS_BLOCK;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 75% grass, 15% mud, 10% clay
         if (roll < 0.75) return Blocks.GRASS_BLOCK;
         else if (roll < 0.90) return Blocks.MUD;
         else return Blocks.CLAY;
     }
 
-    private static Block getDefaultSurfaceBlock(boolean allowVariation) {
+    private static Block getDefaultSurfaceBlock(boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.GRASS_BLOCK;
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         // 85% grass, 8% gravel, 5% path, 2% farmland (original messy mode)
         if (roll < 0.02) return Blocks.FARMLAND;
         else if (roll < 0.07) return Blocks.DIRT_PATH;
@@ -169,13 +169,13 @@ public class BiomePalette {
         else return Blocks.GRASS_BLOCK;
     }
 
-    private static Block getPathBlock(NaturalizationMode mode, boolean allowVariation) {
+    private static Block getPathBlock(NaturalizationMode mode, boolean allowVariation, RandomGenerator random) {
         if (mode == NaturalizationMode.PATH) {
             return Blocks.DIRT_PATH;
         } else {
             // MESSY_PATH
             if (!allowVariation) return Blocks.DIRT_PATH;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             if (roll < 0.75) return Blocks.DIRT_PATH;
             else if (roll < 0.85) return Blocks.GRAVEL;
             else if (roll < 0.95) return Blocks.GRASS_BLOCK;
@@ -183,9 +183,9 @@ public class BiomePalette {
         }
     }
 
-    private static Block getDefaultVegetation() {
+    private static Block getDefaultVegetation(RandomGenerator random) {
         // Original WFC-inspired variety for plains/forests
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
 
         // 70% grass variants
         if (roll < 0.40) {
@@ -194,20 +194,20 @@ public class BiomePalette {
             return Blocks.TALL_GRASS;
         } else if (roll < 0.775) {
             // 12.5% 2-block tall plants
-            return ThreadLocalRandom.current().nextBoolean() ? Blocks.LARGE_FERN : Blocks.TALL_GRASS;
+            return random.nextBoolean() ? Blocks.LARGE_FERN : Blocks.TALL_GRASS;
         } else if (roll < 0.85) {
             // 7.5% fern
             return Blocks.FERN;
         } else if (roll < 0.933) {
             // 8.3% common flowers
-            return ThreadLocalRandom.current().nextBoolean() ? Blocks.DANDELION : Blocks.POPPY;
+            return random.nextBoolean() ? Blocks.DANDELION : Blocks.POPPY;
         } else {
             // 6.7% rare flowers
             Block[] rareFlowers = {
                 Blocks.BLUE_ORCHID, Blocks.ALLIUM, Blocks.AZURE_BLUET,
                 Blocks.OXEYE_DAISY, Blocks.CORNFLOWER, Blocks.LILY_OF_THE_VALLEY
             };
-            return rareFlowers[ThreadLocalRandom.current().nextInt(rareFlowers.length)];
+            return rareFlowers[random.nextInt(rareFlowers.length)];
         }
     }
 
@@ -215,19 +215,19 @@ public class BiomePalette {
      * Get biome-specific subsurface blocks (1-2 blocks below surface).
      * Different palettes for land vs underwater.
      */
-    public static Block getSubsurfaceBlock(Holder<Biome> biome, int depth, boolean isUnderwater, boolean allowVariation) {
+    public static Block getSubsurfaceBlock(Holder<Biome> biome, int depth, boolean isUnderwater, boolean allowVariation, RandomGenerator random) {
         if (isUnderwater) {
-            return getUnderwaterSubsurfaceBlock(depth, allowVariation);
+            return getUnderwaterSubsurfaceBlock(depth, allowVariation, random);
         } else {
-            return getLandSubsurfaceBlock(biome, depth, allowVariation);
+            return getLandSubsurfaceBlock(biome, depth, allowVariation, random);
         }
     }
 
-    private static Block getLandSubsurfaceBlock(Holder<Biome> biome, int depth, boolean allowVariation) {
+    private static Block getLandSubsurfaceBlock(Holder<Biome> biome, int depth, boolean allowVariation, RandomGenerator random) {
         // Desert biomes - sandstone subsurface
         if (biome.is(Biomes.DESERT) || biome.is(Biomes.BADLANDS) || biome.is(Biomes.ERODED_BADLANDS) || biome.is(Biomes.WOODED_BADLANDS)) {
             if (!allowVariation) return Blocks.SANDSTONE;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 80% sandstone, 15% sand, 5% red sandstone
             if (roll < 0.80) return Blocks.SANDSTONE;
             else if (roll < 0.95) return Blocks.SAND;
@@ -236,7 +236,7 @@ public class BiomePalette {
         // Taiga biomes - podzol/dirt mix
         else if (biome.is(Biomes.TAIGA) || biome.is(Biomes.SNOWY_TAIGA) || biome.is(Biomes.OLD_GROWTH_PINE_TAIGA) || biome.is(Biomes.OLD_GROWTH_SPRUCE_TAIGA)) {
             if (!allowVariation) return Blocks.DIRT;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 70% dirt, 20% podzol, 10% coarse dirt
             if (roll < 0.70) return Blocks.DIRT;
             else if (roll < 0.90) return Blocks.PODZOL;
@@ -245,7 +245,7 @@ public class BiomePalette {
         // Swamp biomes - mud/clay heavy
         else if (biome.is(Biomes.SWAMP) || biome.is(Biomes.MANGROVE_SWAMP)) {
             if (!allowVariation) return Blocks.MUD;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 60% mud, 30% dirt, 10% clay
             if (roll < 0.60) return Blocks.MUD;
             else if (roll < 0.90) return Blocks.DIRT;
@@ -254,7 +254,7 @@ public class BiomePalette {
         // Savanna - coarse dirt mix
         else if (biome.is(Biomes.SAVANNA) || biome.is(Biomes.SAVANNA_PLATEAU) || biome.is(Biomes.WINDSWEPT_SAVANNA)) {
             if (!allowVariation) return Blocks.DIRT;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 75% dirt, 20% coarse dirt, 5% red sand
             if (roll < 0.75) return Blocks.DIRT;
             else if (roll < 0.95) return Blocks.COARSE_DIRT;
@@ -263,7 +263,7 @@ public class BiomePalette {
         // Jungle - rich dirt/podzol
         else if (biome.is(Biomes.JUNGLE) || biome.is(Biomes.SPARSE_JUNGLE) || biome.is(Biomes.BAMBOO_JUNGLE)) {
             if (!allowVariation) return Blocks.DIRT;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 80% dirt, 15% podzol, 5% mud
             if (roll < 0.80) return Blocks.DIRT;
             else if (roll < 0.95) return Blocks.PODZOL;
@@ -272,7 +272,7 @@ public class BiomePalette {
         // Default (plains/forest/etc) - standard dirt
         else {
             if (!allowVariation) return Blocks.DIRT;
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // 90% dirt, 8% coarse dirt, 2% gravel
             if (roll < 0.90) return Blocks.DIRT;
             else if (roll < 0.98) return Blocks.COARSE_DIRT;
@@ -280,12 +280,12 @@ public class BiomePalette {
         }
     }
 
-    private static Block getUnderwaterSubsurfaceBlock(int depth, boolean allowVariation) {
+    private static Block getUnderwaterSubsurfaceBlock(int depth, boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) {
             return depth == -1 ? Blocks.GRAVEL : Blocks.SAND;
         }
 
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         if (depth == -1) {
             // First subsurface - gravel heavy
             if (roll < 0.70) return Blocks.GRAVEL;
@@ -303,20 +303,20 @@ public class BiomePalette {
      * Get biome-specific deep layer blocks (3-7 blocks below surface).
      * Returns randomized blocks from a palette.
      */
-    public static Block getDeepLayerBlock(Holder<Biome> biome, int depth, boolean isUnderwater, boolean allowVariation) {
+    public static Block getDeepLayerBlock(Holder<Biome> biome, int depth, boolean isUnderwater, boolean allowVariation, RandomGenerator random) {
         if (isUnderwater) {
-            return getUnderwaterDeepLayerBlock(depth, allowVariation);
+            return getUnderwaterDeepLayerBlock(depth, allowVariation, random);
         } else {
-            return getLandDeepLayerBlock(biome, depth, allowVariation);
+            return getLandDeepLayerBlock(biome, depth, allowVariation, random);
         }
     }
 
-    private static Block getLandDeepLayerBlock(Holder<Biome> biome, int depth, boolean allowVariation) {
+    private static Block getLandDeepLayerBlock(Holder<Biome> biome, int depth, boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.STONE;
 
         // Desert biomes - sandstone to stone transition
         if (biome.is(Biomes.DESERT) || biome.is(Biomes.BADLANDS) || biome.is(Biomes.ERODED_BADLANDS) || biome.is(Biomes.WOODED_BADLANDS)) {
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             // Deeper = more stone, shallower = more sandstone
             double stoneChance = 0.20 + (Math.abs(depth) - 3) * 0.15; // Increases with depth
             if (roll < stoneChance) return Blocks.STONE;
@@ -326,7 +326,7 @@ public class BiomePalette {
         }
         // Swamp - clay/mud to stone
         else if (biome.is(Biomes.SWAMP) || biome.is(Biomes.MANGROVE_SWAMP)) {
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             double stoneChance = 0.15 + (Math.abs(depth) - 3) * 0.15;
             if (roll < stoneChance) return Blocks.STONE;
             else if (roll < stoneChance + 0.40) return Blocks.CLAY;
@@ -335,7 +335,7 @@ public class BiomePalette {
         }
         // Taiga - dirt/stone mix
         else if (biome.is(Biomes.TAIGA) || biome.is(Biomes.SNOWY_TAIGA) || biome.is(Biomes.OLD_GROWTH_PINE_TAIGA) || biome.is(Biomes.OLD_GROWTH_SPRUCE_TAIGA)) {
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             double stoneChance = 0.25 + (Math.abs(depth) - 3) * 0.15;
             if (roll < stoneChance) return Blocks.STONE;
             else if (roll < stoneChance + 0.50) return Blocks.DIRT;
@@ -344,7 +344,7 @@ public class BiomePalette {
         }
         // Default - dirt to stone gradient
         else {
-            double roll = ThreadLocalRandom.current().nextDouble();
+            double roll = random.nextDouble();
             double stoneChance = 0.20 + (Math.abs(depth) - 3) * 0.16; // Gradual transition
             if (roll < stoneChance) return Blocks.STONE;
             else if (roll < stoneChance + 0.60) return Blocks.DIRT;
@@ -353,10 +353,10 @@ public class BiomePalette {
         }
     }
 
-    private static Block getUnderwaterDeepLayerBlock(int depth, boolean allowVariation) {
+    private static Block getUnderwaterDeepLayerBlock(int depth, boolean allowVariation, RandomGenerator random) {
         if (!allowVariation) return Blocks.CLAY;
 
-        double roll = ThreadLocalRandom.current().nextDouble();
+        double roll = random.nextDouble();
         double stoneChance = 0.10 + (Math.abs(depth) - 3) * 0.12; // Gradual stone increase
 
         if (roll < stoneChance) return Blocks.STONE;
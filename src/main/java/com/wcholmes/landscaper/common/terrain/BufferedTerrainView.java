@@ -0,0 +1,91 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.Predicate;
+
+/**
+ * Write buffer layered over another view. Writes land in a {@link ChangeSet} and reads see them
+ * immediately, so an operation can be planned against any view and committed (or diffed) later.
+ *
+ * <p>Heightmaps and biomes come from the underlying view and do not reflect pending writes.
+ */
+public class BufferedTerrainView implements TerrainView {
+
+    private final TerrainView base;
+    private final ChangeSet changes;
+
+    public BufferedTerrainView(TerrainView base, ChangeSet changes) {
+        this.base = base;
+        this.changes = changes;
+    }
+
+    public TerrainView getBase() {
+        return base;
+    }
+
+    public ChangeSet getChanges() {
+        return changes;
+    }
+
+    public void setBlock(BlockPos pos, BlockState state) {
+        changes.set(pos, state);
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        BlockState pending = changes.get(x, y, z);
+        return pending != null ? pending : base.getBlockState(x, y, z);
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        BlockState pending = changes.get(pos.asLong());
+        return pending != null ? pending : base.getBlockState(pos);
+    }
+
+    /**
+     * The base's answer (which may come from an index) unless a pending write lands in the chunk.
+     */
+    @Override
+    public int findSurfaceY(int x, int y, int z) {
+        return changes.touchesChunk(x >> 4, z >> 4) ? TerrainUtils.findSurfaceY(this, x, y, z) : base.findSurfaceY(x, y, z);
+    }
+
+    // Section hints come from the base unless a pending write lands in the section
+
+    @Override
+    public boolean sectionMayContain(int x, int y, int z, Predicate<BlockState> predicate) {
+        return changes.touchesSection(x >> 4, y >> 4, z >> 4) || base.sectionMayContain(x, y, z, predicate);
+    }
+
+    @Override
+    public BlockState getUniformState(int x, int y, int z) {
+        return changes.touchesSection(x >> 4, y >> 4, z >> 4) ? null : base.getUniformState(x, y, z);
+    }
+
+    @Override
+    public Holder<Biome> getBiome(BlockPos pos) {
+        return base.getBiome(pos);
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        return base.getHeight(type, x, z);
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return base.getMinBuildHeight();
+    }
+
+    @Override
+    public int getMaxBuildHeight() {
+        return base.getMaxBuildHeight();
+    }
+}
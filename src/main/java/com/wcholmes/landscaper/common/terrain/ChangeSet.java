@@ -0,0 +1,187 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Planned block writes, keyed by packed position. A position written twice keeps its latest state
+ * but its original place in the commit order.
+ */
+public class ChangeSet {
+
+    private final Long2ObjectLinkedOpenHashMap<BlockState> changes = new Long2ObjectLinkedOpenHashMap<>();
+    private final LongOpenHashSet sections = new LongOpenHashSet();   // Sections holding any change
+    private final LongOpenHashSet chunks = new LongOpenHashSet();     // Chunk columns holding any change
+    private final LongOpenHashSet settledFluid = new LongOpenHashSet(); // Fluid cells the plan drained or sealed (not saved)
+    private long lastSection = Long.MIN_VALUE;
+
+    public void set(BlockPos pos, BlockState state) {
+        put(pos.asLong(), state);
+    }
+
+    private void put(long packedPos, BlockState state) {
+        changes.put(packedPos, state);
+        long section = SectionPos.asLong(BlockPos.getX(packedPos) >> 4, BlockPos.getY(packedPos) >> 4,
+            BlockPos.getZ(packedPos) >> 4);
+        // Writes come in runs within one section
+        if (section != lastSection) {
+            sections.add(section);
+            chunks.add(ChunkPos.asLong(BlockPos.getX(packedPos) >> 4, BlockPos.getZ(packedPos) >> 4));
+            lastSection = section;
+        }
+    }
+
+    /**
+     * Record a fluid cell the plan drained or sealed; its fluid ticks are dropped after the commit.
+     */
+    public void markSettledFluid(BlockPos pos) {
+        settledFluid.add(pos.asLong());
+    }
+
+    /**
+     * Fluid cells the plan drained or sealed, as packed positions.
+     */
+    public LongSet getSettledFluid() {
+        return settledFluid;
+    }
+
+    /**
+     * True if any change lies in the chunk column with these chunk coordinates.
+     */
+    public boolean touchesChunk(int chunkX, int chunkZ) {
+        return chunks.contains(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * True if any change lies in the 16x16x16 section with these section coordinates.
+     */
+    public boolean touchesSection(int sectionX, int sectionY, int sectionZ) {
+        return sections.contains(SectionPos.asLong(sectionX, sectionY, sectionZ));
+    }
+
+    /**
+     * Planned state at a position, or null if the position is untouched.
+     */
+    public BlockState get(long packedPos) {
+        return changes.get(packedPos);
+    }
+
+    public BlockState get(int x, int y, int z) {
+        return changes.get(BlockPos.asLong(x, y, z));
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Smallest box holding every change, or null if there are none.
+     */
+    public BoundingBox getBounds() {
+        if (changes.isEmpty()) return null;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long packed : changes.keySet()) {
+            int x = BlockPos.getX(packed);
+            int y = BlockPos.getY(packed);
+            int z = BlockPos.getZ(packed);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Visit every change in commit order.
+     */
+    public void forEach(BiConsumer<BlockPos, BlockState> action) {
+        for (Long2ObjectMap.Entry<BlockState> entry : changes.long2ObjectEntrySet()) {
+            action.accept(BlockPos.of(entry.getLongKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Write every change to the level in commit order.
+     *
+     * @param flags Block update flags passed to Level.setBlock
+     * @return Number of blocks the level actually changed
+     */
+    public int commit(Level level, int flags) {
+        int changed = 0;
+        for (Long2ObjectMap.Entry<BlockState> entry : changes.long2ObjectEntrySet()) {
+            // Immutable positions - scheduled ticks and block events keep a reference
+            if (level.setBlock(BlockPos.of(entry.getLongKey()), entry.getValue(), flags)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Serialize as a block state palette plus parallel position/palette-index arrays.
+     */
+    public CompoundTag save() {
+        Reference2IntOpenHashMap<BlockState> paletteIndex = new Reference2IntOpenHashMap<>();
+        ListTag palette = new ListTag();
+        long[] positions = new long[changes.size()];
+        int[] states = new int[changes.size()];
+
+        int i = 0;
+        for (Long2ObjectMap.Entry<BlockState> entry : changes.long2ObjectEntrySet()) {
+            BlockState state = entry.getValue();
+            if (!paletteIndex.containsKey(state)) {
+                paletteIndex.put(state, palette.size());
+                palette.add(NbtUtils.writeBlockState(state));
+            }
+            positions[i] = entry.getLongKey();
+            states[i] = paletteIndex.getInt(state);
+            i++;
+        }
+
+        CompoundTag tag = new CompoundTag();
+        tag.put("Palette", palette);
+        tag.putLongArray("Positions", positions);
+        tag.putIntArray("States", states);
+        return tag;
+    }
+
+    public static ChangeSet load(CompoundTag tag) {
+        ListTag paletteTag = tag.getList("Palette", Tag.TAG_COMPOUND);
+        BlockState[] palette = new BlockState[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTag.getCompound(i));
+        }
+
+        long[] positions = tag.getLongArray("Positions");
+        int[] states = tag.getIntArray("States");
+        ChangeSet changeSet = new ChangeSet();
+        for (int i = 0; i < positions.length; i++) {
+            changeSet.put(positions[i], palette[states[i]]);
+        }
+        return changeSet;
+    }
+}
@@ -0,0 +1,121 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.function.Predicate;
+
+/**
+ * Buffered view with one column held in a local array. Reads and writes inside the loaded
+ * column window stay in the array; everything else goes through the shared change set.
+ * {@link #flush()} hands the column's net changes to the change set.
+ *
+ * <p>Lets a column run every pass with a single read of its vertical window. One instance is
+ * reused for all columns of an operation.
+ */
+public class ColumnTerrainView extends BufferedTerrainView {
+
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private BlockState[] loaded = new BlockState[0];
+    private BlockState[] states = new BlockState[0];
+    private int columnX;
+    private int columnZ;
+    private int minY;
+    private int height;
+    private boolean active;
+
+    public ColumnTerrainView(TerrainView base, ChangeSet changes) {
+        super(base, changes);
+    }
+
+    /**
+     * Read blocks {@code minY..maxY} (inclusive) of column x/z into the local window.
+     * The previous column must have been flushed.
+     */
+    public void load(int x, int z, int minY, int maxY) {
+        this.columnX = x;
+        this.columnZ = z;
+        this.minY = minY;
+        this.height = maxY - minY + 1;
+        if (states.length < height) {
+            states = new BlockState[height];
+            loaded = new BlockState[height];
+        }
+
+        // Read through the change set so columns see what earlier columns already wrote
+        active = false;
+        for (int i = 0; i < height; i++) {
+            loaded[i] = super.getBlockState(x, minY + i, z);
+            states[i] = loaded[i];
+        }
+        active = true;
+    }
+
+    /**
+     * Record the column's net changes (bottom to top) in the change set and release the window.
+     *
+     * @return Number of blocks whose state changed
+     */
+    public int flush() {
+        active = false;
+        int changed = 0;
+        for (int i = 0; i < height; i++) {
+            if (states[i] != loaded[i]) {
+                super.setBlock(cursor.set(columnX, minY + i, columnZ), states[i]);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private int index(int x, int y, int z) {
+        if (!active || x != columnX || z != columnZ) return -1;
+        int i = y - minY;
+        return i >= 0 && i < height ? i : -1;
+    }
+
+    @Override
+    public void setBlock(BlockPos pos, BlockState state) {
+        int i = index(pos.getX(), pos.getY(), pos.getZ());
+        if (i >= 0) {
+            states[i] = state;
+        } else {
+            super.setBlock(pos, state);
+        }
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i >= 0 ? states[i] : super.getBlockState(x, y, z);
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    // The loaded window may hold unflushed writes, so its chunk and sections get no hints
+
+    @Override
+    public int findSurfaceY(int x, int y, int z) {
+        boolean windowChunk = active && (x >> 4) == (columnX >> 4) && (z >> 4) == (columnZ >> 4);
+        return windowChunk ? TerrainUtils.findSurfaceY(this, x, y, z) : super.findSurfaceY(x, y, z);
+    }
+
+    @Override
+    public boolean sectionMayContain(int x, int y, int z, Predicate<BlockState> predicate) {
+        return inWindowSection(x, y, z) || super.sectionMayContain(x, y, z, predicate);
+    }
+
+    @Override
+    public BlockState getUniformState(int x, int y, int z) {
+        return inWindowSection(x, y, z) ? null : super.getUniformState(x, y, z);
+    }
+
+    private boolean inWindowSection(int x, int y, int z) {
+        return active && (x >> 4) == (columnX >> 4) && (z >> 4) == (columnZ >> 4)
+            && (y >> 4) >= (minY >> 4) && (y >> 4) <= ((minY + height - 1) >> 4);
+    }
+}
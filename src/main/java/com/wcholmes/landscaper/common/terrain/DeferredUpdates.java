@@ -0,0 +1,95 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Bulk-edit mode for committing a change set. Blocks are written with {@link #BULK_FLAGS}: clients
+ * are updated but no neighbour or shape updates fire, since most neighbours are about to be
+ * overwritten too. {@link #settle} then brings the edit into a consistent state once:
+ * <ol>
+ *   <li>every changed block takes its shape from its final neighbours (snowy grass, plants
+ *       that lost their support, ...), repeated until no shape changes</li>
+ *   <li>each unchanged block bordering the edit gets one shape update and one neighbour
+ *       notification, however many edited blocks it touches</li>
+ * </ol>
+ * Light is unaffected: the chunk queues its light checks as blocks are written, and the light
+ * engine works through the queue in batches.
+ */
+public class DeferredUpdates {
+    public static final int BULK_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int MAX_SHAPE_ROUNDS = 4;
+
+    /**
+     * Run the deferred updates for a change set committed with {@link #BULK_FLAGS}.
+     *
+     * @return Number of blocks that changed while settling
+     */
+    public static int settle(Level level, ChangeSet changes) {
+        int settled = 0;
+
+        // Changed blocks against their final neighbours, to a fixpoint: a block whose shape changes
+        // re-queues the changed blocks next to it, since their shape may depend on it
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        LongOpenHashSet queued = new LongOpenHashSet(changes.size());
+        changes.forEach((pos, planned) -> {
+            queue.enqueue(pos.asLong());
+            queued.add(pos.asLong());
+        });
+        int budget = changes.size() * MAX_SHAPE_ROUNDS;   // Bounds blocks whose shapes keep flipping each other
+        while (!queue.isEmpty() && budget-- > 0) {
+            long packed = queue.dequeueLong();
+            queued.remove(packed);
+            BlockPos pos = BlockPos.of(packed);
+            BlockState state = level.getBlockState(pos);
+            BlockState shaped = Block.updateFromNeighbourShapes(state, level, pos);
+            if (shaped == state || !level.setBlock(pos, shaped, BULK_FLAGS)) continue;
+
+            settled++;
+            for (Direction direction : DIRECTIONS) {
+                long next = BlockPos.asLong(pos.getX() + direction.getStepX(), pos.getY() + direction.getStepY(),
+                    pos.getZ() + direction.getStepZ());
+                if (changes.get(next) != null && queued.add(next)) queue.enqueue(next);
+            }
+        }
+
+        // Unchanged blocks across the edit's boundary and surface, each collected once
+        LongOpenHashSet outside = new LongOpenHashSet();
+        changes.forEach((pos, planned) -> {
+            for (Direction direction : DIRECTIONS) {
+                long next = BlockPos.asLong(pos.getX() + direction.getStepX(), pos.getY() + direction.getStepY(),
+                    pos.getZ() + direction.getStepZ());
+                if (changes.get(next) == null) outside.add(next);
+            }
+        });
+
+        // One shape update and one neighbour notification per bordering block
+        BlockPos.MutableBlockPos source = new BlockPos.MutableBlockPos();
+        for (long packed : outside) {
+            BlockPos pos = BlockPos.of(packed);
+            BlockState state = level.getBlockState(pos);
+            BlockState shaped = Block.updateFromNeighbourShapes(state, level, pos);
+            if (shaped != state) {
+                Block.updateOrDestroy(state, shaped, level, pos, Block.UPDATE_ALL);
+                settled++;
+            }
+
+            // Any edited neighbour stands in as the source of the notification
+            for (Direction direction : DIRECTIONS) {
+                source.setWithOffset(pos, direction);
+                if (changes.get(source.asLong()) != null) {
+                    level.neighborChanged(pos, level.getBlockState(source).getBlock(), source.immutable());
+                    break;
+                }
+            }
+        }
+        return settled;
+    }
+}
@@ -0,0 +1,111 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.Arrays;
+
+/**
+ * Dense in-memory terrain: one BlockState reference per block in a box.
+ * Intended for benchmarks, tests and synthetic fixtures - no world or chunk system needed.
+ *
+ * <p>Storage is column-major (all Y values of a column are adjacent) to match how the
+ * algorithms scan vertically.
+ */
+public class DenseTerrainView implements TerrainView {
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final BlockState[] states;
+    private final BlockState air;
+    private Holder<Biome> biome;
+
+    public DenseTerrainView(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.air = Blocks.AIR.defaultBlockState();
+        this.states = new BlockState[sizeX * sizeY * sizeZ];
+        Arrays.fill(states, air);
+    }
+
+    private int index(int x, int y, int z) {
+        int lx = x - minX;
+        int ly = y - minY;
+        int lz = z - minZ;
+        if (lx < 0 || lx >= sizeX || ly < 0 || ly >= sizeY || lz < 0 || lz >= sizeZ) return -1;
+        return (lx * sizeZ + lz) * sizeY + ly;
+    }
+
+    /**
+     * Set a block. Positions outside the box are ignored.
+     *
+     * @return true if the position is inside the view
+     */
+    public boolean setBlockState(int x, int y, int z, BlockState state) {
+        int index = index(x, y, z);
+        if (index < 0) return false;
+        states[index] = state;
+        return true;
+    }
+
+    public boolean setBlockState(BlockPos pos, BlockState state) {
+        return setBlockState(pos.getX(), pos.getY(), pos.getZ(), state);
+    }
+
+    /**
+     * Biome reported for every position (null until set).
+     */
+    public void setBiome(Holder<Biome> biome) {
+        this.biome = biome;
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        int index = index(x, y, z);
+        return index < 0 ? air : states[index];
+    }
+
+    @Override
+    public Holder<Biome> getBiome(BlockPos pos) {
+        return biome;
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        if (index(x, minY, z) < 0) return minY;
+        for (int y = minY + sizeY - 1; y >= minY; y--) {
+            if (type.isOpaque().test(getBlockState(x, y, z))) {
+                return y + 1;
+            }
+        }
+        return minY;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minY;
+    }
+
+    @Override
+    public int getMaxBuildHeight() {
+        return minY + sizeY;
+    }
+
+    public int getMinX() { return minX; }
+    public int getMinZ() { return minZ; }
+    public int getSizeX() { return sizeX; }
+    public int getSizeY() { return sizeY; }
+    public int getSizeZ() { return sizeZ; }
+}
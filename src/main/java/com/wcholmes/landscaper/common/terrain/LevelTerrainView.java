@@ -0,0 +1,129 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.Predicate;
+
+/**
+ * Live view over a Level. Reads go straight to the world, so this must only be used on the
+ * thread that owns the level (the server thread). Use {@link SnapshotTerrainView} to analyze off-thread.
+ *
+ * <p>Block reads resolve each chunk once and then read its sections' palettes directly, skipping
+ * the level's chunk lookup per call. Create one view per operation: cached chunks are kept for
+ * the view's lifetime (writes to them are still seen, since the sections are live).
+ */
+public class LevelTerrainView implements TerrainView {
+
+    // Direct-mapped by chunk X/Z low bits: any 16x16 chunk window (256 blocks) maps without collisions
+    private static final int CACHE_MASK = 15;
+
+    private final Level level;
+    private final int minBuildHeight;
+    private final int maxBuildHeight;
+    private final LevelChunk[] chunks = new LevelChunk[(CACHE_MASK + 1) * (CACHE_MASK + 1)];
+    private final long[] chunkKeys = new long[chunks.length];
+
+    public LevelTerrainView(Level level) {
+        this.level = level;
+        this.minBuildHeight = level.getMinBuildHeight();
+        this.maxBuildHeight = level.getMaxBuildHeight();
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        // Same as Level.getBlockState outside the build height
+        if (y < minBuildHeight || y >= maxBuildHeight) return Blocks.VOID_AIR.defaultBlockState();
+
+        LevelChunk chunk = getChunk(x >> 4, z >> 4);
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(y));
+        if (section.hasOnlyAir()) return Blocks.AIR.defaultBlockState();
+        return section.getBlockState(x & 15, y & 15, z & 15);
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Answers from the {@link SurfaceIndex} on the server; only columns whose surface may lie
+     * above {@code y} are searched block by block.
+     */
+    @Override
+    public int findSurfaceY(int x, int y, int z) {
+        if (level.isClientSide()) return TerrainUtils.findSurfaceY(this, x, y, z);
+        int highest = SurfaceIndex.getHighestSafeY(level, getChunk(x >> 4, z >> 4), x, z);
+        return TerrainUtils.findSurfaceY(this, x, y, z, highest);
+    }
+
+    @Override
+    public boolean sectionMayContain(int x, int y, int z, Predicate<BlockState> predicate) {
+        if (y < minBuildHeight || y >= maxBuildHeight) return predicate.test(Blocks.VOID_AIR.defaultBlockState());
+
+        LevelChunkSection section = getSection(x, y, z);
+        if (section.hasOnlyAir()) return predicate.test(Blocks.AIR.defaultBlockState());
+        return section.maybeHas(predicate);
+    }
+
+    @Override
+    public BlockState getUniformState(int x, int y, int z) {
+        if (y < minBuildHeight || y >= maxBuildHeight) return Blocks.VOID_AIR.defaultBlockState();
+
+        LevelChunkSection section = getSection(x, y, z);
+        if (section.hasOnlyAir()) return Blocks.AIR.defaultBlockState();
+        // Walks the palette, not the blocks: one entry for single-state sections
+        BlockState first = section.getBlockState(0, 0, 0);
+        return section.maybeHas(state -> state != first) ? null : first;
+    }
+
+    private LevelChunkSection getSection(int x, int y, int z) {
+        LevelChunk chunk = getChunk(x >> 4, z >> 4);
+        return chunk.getSection(chunk.getSectionIndex(y));
+    }
+
+    private LevelChunk getChunk(int chunkX, int chunkZ) {
+        int slot = (chunkZ & CACHE_MASK) * (CACHE_MASK + 1) + (chunkX & CACHE_MASK);
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        LevelChunk chunk = chunks[slot];
+        if (chunk == null || chunkKeys[slot] != key) {
+            chunk = level.getChunk(chunkX, chunkZ);
+            chunks[slot] = chunk;
+            chunkKeys[slot] = key;
+        }
+        return chunk;
+    }
+
+    @Override
+    public Holder<Biome> getBiome(BlockPos pos) {
+        return level.getBiome(pos);
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        return level.getHeight(type, x, z);
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return level.getMinBuildHeight();
+    }
+
+    @Override
+    public int getMaxBuildHeight() {
+        return level.getMaxBuildHeight();
+    }
+}
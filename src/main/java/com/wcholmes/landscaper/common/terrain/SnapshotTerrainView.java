@@ -0,0 +1,362 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.PalettedContainerRO;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.Predicate;
+
+/**
+ * Frozen copy of the chunk sections around a position.
+ *
+ * <p>Capture happens on the server thread (copying the paletted block containers, which keeps them
+ * palette-compressed). After that the snapshot never touches the level, so analysis and planning
+ * can read it from any thread.
+ *
+ * <p>{@link #save()} / {@link #load(CompoundTag)} persist the captured blocks for offline replay.
+ */
+public class SnapshotTerrainView implements TerrainView {
+
+    // Heightmaps that exist on fully generated chunks (worldgen variants map onto these)
+    private static final Heightmap.Types[] HEIGHTMAP_TYPES = {
+        Heightmap.Types.WORLD_SURFACE,
+        Heightmap.Types.OCEAN_FLOOR,
+        Heightmap.Types.MOTION_BLOCKING,
+        Heightmap.Types.MOTION_BLOCKING_NO_LEAVES
+    };
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int chunksX;
+    private final int chunksZ;
+    private final int minSectionY;
+    private final int sectionCount;
+    private final int minBuildHeight;
+    private final int maxBuildHeight;
+    private final ChunkSnapshot[] chunks;
+
+    /**
+     * One captured chunk column: block sections, biome cells and final heightmaps.
+     */
+    static final class ChunkSnapshot {
+        final PalettedContainer<BlockState>[] sections;
+        final Holder<Biome>[][] biomes; // [section][(qy * 4 + qz) * 4 + qx], null when loaded from NBT
+        final int[][] heights;          // [heightmap type][lx * 16 + lz]
+
+        ChunkSnapshot(PalettedContainer<BlockState>[] sections, Holder<Biome>[][] biomes, int[][] heights) {
+            this.sections = sections;
+            this.biomes = biomes;
+            this.heights = heights;
+        }
+    }
+
+    SnapshotTerrainView(int minChunkX, int minChunkZ, int chunksX, int chunksZ,
+                        int minSectionY, int sectionCount, int minBuildHeight, int maxBuildHeight,
+                        ChunkSnapshot[] chunks) {
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.chunksX = chunksX;
+        this.chunksZ = chunksZ;
+        this.minSectionY = minSectionY;
+        this.sectionCount = sectionCount;
+        this.minBuildHeight = minBuildHeight;
+        this.maxBuildHeight = maxBuildHeight;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Capture every chunk section that intersects the box around {@code center}.
+     * Must be called on the thread that owns the level.
+     *
+     * @param level The live level
+     * @param center Center of the captured area
+     * @param radius Horizontal radius in blocks
+     * @param minY Lowest Y to capture (clamped to the build height)
+     * @param maxY Highest Y to capture (clamped to the build height)
+     */
+    @SuppressWarnings("unchecked")
+    public static SnapshotTerrainView capture(Level level, BlockPos center, int radius, int minY, int maxY) {
+        int minChunkX = SectionPos.blockToSectionCoord(center.getX() - radius);
+        int maxChunkX = SectionPos.blockToSectionCoord(center.getX() + radius);
+        int minChunkZ = SectionPos.blockToSectionCoord(center.getZ() - radius);
+        int maxChunkZ = SectionPos.blockToSectionCoord(center.getZ() + radius);
+        int minSectionY = SectionPos.blockToSectionCoord(Math.max(minY, level.getMinBuildHeight()));
+        int maxSectionY = SectionPos.blockToSectionCoord(Math.min(maxY, level.getMaxBuildHeight() - 1));
+        int sectionCount = maxSectionY - minSectionY + 1;
+
+        int chunksX = maxChunkX - minChunkX + 1;
+        int chunksZ = maxChunkZ - minChunkZ + 1;
+        ChunkSnapshot[] chunks = new ChunkSnapshot[chunksX * chunksZ];
+
+        for (int cx = 0; cx < chunksX; cx++) {
+            for (int cz = 0; cz < chunksZ; cz++) {
+                LevelChunk chunk = level.getChunk(minChunkX + cx, minChunkZ + cz);
+
+                PalettedContainer<BlockState>[] sections = new PalettedContainer[sectionCount];
+                Holder<Biome>[][] biomes = new Holder[sectionCount][];
+                for (int s = 0; s < sectionCount; s++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(minSectionY + s));
+                    sections[s] = section.getStates().copy();
+                    biomes[s] = copyBiomes(section.getBiomes());
+                }
+
+                int[][] heights = new int[HEIGHTMAP_TYPES.length][256];
+                for (int t = 0; t < HEIGHTMAP_TYPES.length; t++) {
+                    for (int lx = 0; lx < 16; lx++) {
+                        for (int lz = 0; lz < 16; lz++) {
+                            // Same +1 convention as Level.getHeight
+                            heights[t][lx * 16 + lz] = chunk.getHeight(HEIGHTMAP_TYPES[t], lx, lz) + 1;
+                        }
+                    }
+                }
+
+                chunks[cx * chunksZ + cz] = new ChunkSnapshot(sections, biomes, heights);
+            }
+        }
+
+        return new SnapshotTerrainView(minChunkX, minChunkZ, chunksX, chunksZ, minSectionY, sectionCount,
+            level.getMinBuildHeight(), level.getMaxBuildHeight(), chunks);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Holder<Biome>[] copyBiomes(PalettedContainerRO<Holder<Biome>> source) {
+        Holder<Biome>[] biomes = new Holder[64];
+        for (int qy = 0; qy < 4; qy++) {
+            for (int qz = 0; qz < 4; qz++) {
+                for (int qx = 0; qx < 4; qx++) {
+                    biomes[(qy * 4 + qz) * 4 + qx] = source.get(qx, qy, qz);
+                }
+            }
+        }
+        return biomes;
+    }
+
+    /**
+     * Serialize the captured blocks and heightmaps. Each section is stored as a block state palette
+     * plus bit-packed palette indices. Biomes are not stored (resolving them needs the server's
+     * registries), so a loaded snapshot reports null biomes.
+     */
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("MinChunkX", minChunkX);
+        tag.putInt("MinChunkZ", minChunkZ);
+        tag.putInt("ChunksX", chunksX);
+        tag.putInt("ChunksZ", chunksZ);
+        tag.putInt("MinSectionY", minSectionY);
+        tag.putInt("SectionCount", sectionCount);
+        tag.putInt("MinBuildHeight", minBuildHeight);
+        tag.putInt("MaxBuildHeight", maxBuildHeight);
+
+        ListTag chunkList = new ListTag();
+        for (ChunkSnapshot chunk : chunks) {
+            ListTag sectionList = new ListTag();
+            for (PalettedContainer<BlockState> section : chunk.sections) {
+                sectionList.add(saveSection(section));
+            }
+
+            int[] heights = new int[HEIGHTMAP_TYPES.length * 256];
+            for (int t = 0; t < HEIGHTMAP_TYPES.length; t++) {
+                System.arraycopy(chunk.heights[t], 0, heights, t * 256, 256);
+            }
+
+            CompoundTag chunkTag = new CompoundTag();
+            chunkTag.put("Sections", sectionList);
+            chunkTag.putIntArray("Heights", heights);
+            chunkList.add(chunkTag);
+        }
+        tag.put("Chunks", chunkList);
+        return tag;
+    }
+
+    /**
+     * Rebuild a snapshot written by {@link #save()}. Needs the block registry (bootstrapped game or server).
+     */
+    @SuppressWarnings("unchecked")
+    public static SnapshotTerrainView load(CompoundTag tag) {
+        int chunksX = tag.getInt("ChunksX");
+        int chunksZ = tag.getInt("ChunksZ");
+        int sectionCount = tag.getInt("SectionCount");
+
+        ListTag chunkList = tag.getList("Chunks", Tag.TAG_COMPOUND);
+        ChunkSnapshot[] chunks = new ChunkSnapshot[chunksX * chunksZ];
+        for (int c = 0; c < chunks.length; c++) {
+            CompoundTag chunkTag = chunkList.getCompound(c);
+
+            ListTag sectionList = chunkTag.getList("Sections", Tag.TAG_COMPOUND);
+            PalettedContainer<BlockState>[] sections = new PalettedContainer[sectionCount];
+            for (int s = 0; s < sectionCount; s++) {
+                sections[s] = loadSection(sectionList.getCompound(s));
+            }
+
+            int[] packedHeights = chunkTag.getIntArray("Heights");
+            int[][] heights = new int[HEIGHTMAP_TYPES.length][256];
+            for (int t = 0; t < HEIGHTMAP_TYPES.length; t++) {
+                System.arraycopy(packedHeights, t * 256, heights[t], 0, 256);
+            }
+
+            chunks[c] = new ChunkSnapshot(sections, null, heights);
+        }
+
+        return new SnapshotTerrainView(tag.getInt("MinChunkX"), tag.getInt("MinChunkZ"), chunksX, chunksZ,
+            tag.getInt("MinSectionY"), sectionCount, tag.getInt("MinBuildHeight"), tag.getInt("MaxBuildHeight"), chunks);
+    }
+
+    private static CompoundTag saveSection(PalettedContainer<BlockState> section) {
+        Reference2IntOpenHashMap<BlockState> paletteIndex = new Reference2IntOpenHashMap<>();
+        ListTag palette = new ListTag();
+        int[] indices = new int[4096];
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state = section.get(x, y, z);
+                    if (!paletteIndex.containsKey(state)) {
+                        paletteIndex.put(state, palette.size());
+                        palette.add(NbtUtils.writeBlockState(state));
+                    }
+                    indices[(y * 16 + z) * 16 + x] = paletteIndex.getInt(state);
+                }
+            }
+        }
+
+        CompoundTag tag = new CompoundTag();
+        tag.put("Palette", palette);
+        // Single-state sections (all air, all stone) need no index data
+        if (palette.size() > 1) {
+            tag.putLongArray("Data", pack(indices, bitsFor(palette.size())));
+        }
+        return tag;
+    }
+
+    private static PalettedContainer<BlockState> loadSection(CompoundTag tag) {
+        ListTag paletteTag = tag.getList("Palette", Tag.TAG_COMPOUND);
+        BlockState[] palette = new BlockState[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTag.getCompound(i));
+        }
+
+        BlockState air = Blocks.AIR.defaultBlockState();
+        PalettedContainer<BlockState> section =
+            new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, air, PalettedContainer.Strategy.SECTION_STATES);
+        long[] data = palette.length > 1 ? tag.getLongArray("Data") : null;
+        int bits = bitsFor(palette.length);
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+
+        for (int i = 0; i < 4096; i++) {
+            BlockState state = data == null ? palette[0] : palette[(int) ((data[i / perLong] >>> ((i % perLong) * bits)) & mask)];
+            if (state != air) {
+                section.getAndSetUnchecked(i & 15, i >> 8, (i >> 4) & 15, state);
+            }
+        }
+        return section;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    // Entries never straddle two longs, same as vanilla's SimpleBitStorage
+    private static long[] pack(int[] values, int bits) {
+        int perLong = 64 / bits;
+        long[] data = new long[(values.length + perLong - 1) / perLong];
+        for (int i = 0; i < values.length; i++) {
+            data[i / perLong] |= (long) values[i] << ((i % perLong) * bits);
+        }
+        return data;
+    }
+
+    private ChunkSnapshot chunkAt(int x, int z) {
+        int cx = SectionPos.blockToSectionCoord(x) - minChunkX;
+        int cz = SectionPos.blockToSectionCoord(z) - minChunkZ;
+        if (cx < 0 || cx >= chunksX || cz < 0 || cz >= chunksZ) return null;
+        return chunks[cx * chunksZ + cz];
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        ChunkSnapshot chunk = chunkAt(x, z);
+        int section = SectionPos.blockToSectionCoord(y) - minSectionY;
+        if (chunk == null || section < 0 || section >= sectionCount) {
+            return Blocks.AIR.defaultBlockState();
+        }
+        return chunk.sections[section].get(x & 15, y & 15, z & 15);
+    }
+
+    @Override
+    public boolean sectionMayContain(int x, int y, int z, Predicate<BlockState> predicate) {
+        PalettedContainer<BlockState> section = sectionAt(x, y, z);
+        return section != null ? section.maybeHas(predicate) : predicate.test(Blocks.AIR.defaultBlockState());
+    }
+
+    @Override
+    public BlockState getUniformState(int x, int y, int z) {
+        PalettedContainer<BlockState> section = sectionAt(x, y, z);
+        if (section == null) return Blocks.AIR.defaultBlockState();
+        BlockState first = section.get(0, 0, 0);
+        return section.maybeHas(state -> state != first) ? null : first;
+    }
+
+    private PalettedContainer<BlockState> sectionAt(int x, int y, int z) {
+        ChunkSnapshot chunk = chunkAt(x, z);
+        int section = SectionPos.blockToSectionCoord(y) - minSectionY;
+        if (chunk == null || section < 0 || section >= sectionCount) return null;
+        return chunk.sections[section];
+    }
+
+    @Override
+    public Holder<Biome> getBiome(BlockPos pos) {
+        // Clamp to the captured area - biomes vary slowly enough that the edge cell is a fair answer
+        int x = Math.max(minChunkX * 16, Math.min((minChunkX + chunksX) * 16 - 1, pos.getX()));
+        int z = Math.max(minChunkZ * 16, Math.min((minChunkZ + chunksZ) * 16 - 1, pos.getZ()));
+        int section = Math.max(0, Math.min(sectionCount - 1, SectionPos.blockToSectionCoord(pos.getY()) - minSectionY));
+        ChunkSnapshot chunk = chunkAt(x, z);
+        if (chunk.biomes == null) return null;
+        int qx = (x >> 2) & 3;
+        int qy = (pos.getY() >> 2) & 3;
+        int qz = (z >> 2) & 3;
+        return chunk.biomes[section][(qy * 4 + qz) * 4 + qx];
+    }
+
+    @Override
+    public int getHeight(Heightmap.Types type, int x, int z) {
+        ChunkSnapshot chunk = chunkAt(x, z);
+        if (chunk == null) return minBuildHeight;
+        return chunk.heights[heightmapIndex(type)][(x & 15) * 16 + (z & 15)];
+    }
+
+    private static int heightmapIndex(Heightmap.Types type) {
+        return switch (type) {
+            case WORLD_SURFACE, WORLD_SURFACE_WG -> 0;
+            case OCEAN_FLOOR, OCEAN_FLOOR_WG -> 1;
+            case MOTION_BLOCKING -> 2;
+            case MOTION_BLOCKING_NO_LEAVES -> 3;
+        };
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minBuildHeight;
+    }
+
+    @Override
+    public int getMaxBuildHeight() {
+        return maxBuildHeight;
+    }
+}
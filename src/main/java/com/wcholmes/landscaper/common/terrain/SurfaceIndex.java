@@ -0,0 +1,156 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.config.SafeBlockSet;
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-column Y of the highest safe terrain block (the configured safe_blocks_to_replace, which
+ * vanilla heightmaps don't track), for loaded chunks.
+ *
+ * <p>A chunk's columns are found on first access, then kept current from block change
+ * notifications ({@link #blockChanged}) and dropped when the chunk unloads. Our own bulk commits
+ * report themselves through {@link #update}. Other writes that notify nobody (other mods, structure
+ * placement, no-update fills) are caught on lookup: an entry is rescanned when its block is no
+ * longer safe or the column's WORLD_SURFACE height moved since the entry was made. Reloading the
+ * safe block list clears the index.
+ *
+ * <p>Only used from the server thread.
+ */
+public class SurfaceIndex {
+    // Column whose top safe block was removed; rescanned on next access
+    private static final int STALE = Integer.MAX_VALUE;
+    // Per chunk: 256 highest safe Ys, then the 256 WORLD_SURFACE heights they were found under
+    private static final int SURFACE_HEIGHTS = 256;
+
+    private static final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<int[]>> LEVELS = new HashMap<>();
+    private static SafeBlockSet indexedFor;
+
+    /**
+     * Highest safe block Y in column x/z of {@code chunk}, or {@link TerrainUtils#NO_SURFACE} if the
+     * column has none.
+     */
+    public static int getHighestSafeY(Level level, LevelChunk chunk, int x, int z) {
+        SafeBlockSet safeBlocks = currentSafeBlocks();
+        int[] columns = LEVELS.computeIfAbsent(level.dimension(), key -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(chunk.getPos().toLong(), key -> scanChunk(chunk, safeBlocks));
+
+        int index = (z & 15) * 16 + (x & 15);
+        int highest = columns[index];
+        int top = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15);
+        // Unreported writes: the entry's block was replaced, or blocks were added or removed above
+        boolean stale = highest == STALE || top != columns[SURFACE_HEIGHTS + index]
+            || (highest != TerrainUtils.NO_SURFACE && !safeBlocks.contains(blockAt(chunk, x & 15, highest, z & 15)));
+        if (stale) {
+            highest = scanColumn(chunk, x & 15, z & 15, top, safeBlocks, null);
+            columns[index] = highest;
+            columns[SURFACE_HEIGHTS + index] = top;
+        }
+        return highest;
+    }
+
+    /**
+     * A block in {@code level} now holds {@code state}.
+     */
+    public static void blockChanged(Level level, BlockPos pos, BlockState state) {
+        Long2ObjectOpenHashMap<int[]> chunks = LEVELS.get(level.dimension());
+        if (chunks == null) return;
+        int[] columns = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (columns == null) return;
+
+        int index = (pos.getZ() & 15) * 16 + (pos.getX() & 15);
+        int highest = columns[index];
+        if (highest == STALE) return;
+
+        int y = pos.getY();
+        if (currentSafeBlocks().contains(state)) {
+            if (highest == TerrainUtils.NO_SURFACE || y > highest) columns[index] = y;
+        } else if (y == highest) {
+            columns[index] = STALE;
+        }
+    }
+
+    /**
+     * Bring the index up to date with every position of a committed change set, from the planned states.
+     */
+    public static void update(Level level, ChangeSet changes) {
+        if (!LEVELS.containsKey(level.dimension())) return;
+        changes.forEach((pos, planned) -> blockChanged(level, pos, planned));
+    }
+
+    public static void chunkUnloaded(Level level, ChunkPos pos) {
+        Long2ObjectOpenHashMap<int[]> chunks = LEVELS.get(level.dimension());
+        if (chunks != null) chunks.remove(pos.toLong());
+    }
+
+    public static void levelUnloaded(Level level) {
+        LEVELS.remove(level.dimension());
+    }
+
+    public static void clear() {
+        LEVELS.clear();
+        indexedFor = null;
+    }
+
+    private static SafeBlockSet currentSafeBlocks() {
+        SafeBlockSet safeBlocks = NaturalizationConfig.getSafeBlocks();
+        if (safeBlocks != indexedFor) {
+            LEVELS.clear();
+            indexedFor = safeBlocks;
+        }
+        return safeBlocks;
+    }
+
+    private static int[] scanChunk(LevelChunk chunk, SafeBlockSet safeBlocks) {
+        // Sections that can't hold a safe block are skipped for every column
+        LevelChunkSection[] sections = chunk.getSections();
+        boolean[] skip = new boolean[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            skip[i] = sections[i].hasOnlyAir() || !sections[i].maybeHas(safeBlocks);
+        }
+
+        int[] columns = new int[SURFACE_HEIGHTS * 2];
+        for (int lz = 0; lz < 16; lz++) {
+            for (int lx = 0; lx < 16; lx++) {
+                int top = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, lx, lz);
+                columns[lz * 16 + lx] = scanColumn(chunk, lx, lz, top, safeBlocks, skip);
+                columns[SURFACE_HEIGHTS + lz * 16 + lx] = top;
+            }
+        }
+        return columns;
+    }
+
+    private static BlockState blockAt(LevelChunk chunk, int lx, int y, int lz) {
+        return chunk.getSection(chunk.getSectionIndex(y)).getBlockState(lx, y & 15, lz);
+    }
+
+    /**
+     * Highest safe block at or below {@code top} in one column, top-down.
+     */
+    private static int scanColumn(LevelChunk chunk, int lx, int lz, int top, SafeBlockSet safeBlocks, boolean[] skip) {
+        int bottom = chunk.getMinBuildHeight();
+        for (int y = top; y >= bottom; y--) {
+            int sectionIndex = chunk.getSectionIndex(y);
+            LevelChunkSection section = chunk.getSection(sectionIndex);
+            boolean skipSection = skip != null ? skip[sectionIndex] : section.hasOnlyAir();
+            if (skipSection) {
+                y &= ~15;   // Continue below this section
+                continue;
+            }
+            if (safeBlocks.contains(section.getBlockState(lx, y & 15, lz))) return y;
+        }
+        return TerrainUtils.NO_SURFACE;
+    }
+}
@@ -0,0 +1,83 @@
+package com.wcholmes.landscaper.common.terrain;
+
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.Predicate;
+
+/**
+ * Narrow read-only view of terrain used by the analysis and naturalization algorithms.
+ *
+ * <p>Implementations:
+ * <ul>
+ *   <li>{@link LevelTerrainView} - live world reads (server thread only)</li>
+ *   <li>{@link SnapshotTerrainView} - frozen copy of chunk sections, safe to read from any thread</li>
+ *   <li>{@link DenseTerrainView} - dense in-memory array for benchmarks and tests without a world</li>
+ * </ul>
+ */
+public interface TerrainView {
+
+    /**
+     * Block state at the given world coordinates. Positions outside the view read as air.
+     */
+    BlockState getBlockState(int x, int y, int z);
+
+    default BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Biome at the given position (biomes are stored per 4x4x4 cell).
+     */
+    Holder<Biome> getBiome(BlockPos pos);
+
+    /**
+     * Heightmap lookup with the same meaning as Level.getHeight: the first Y above the
+     * highest block matching the heightmap type.
+     */
+    int getHeight(Heightmap.Types type, int x, int z);
+
+    int getMinBuildHeight();
+
+    int getMaxBuildHeight();
+
+    /**
+     * Whether any block in the 16x16x16 section holding (x, y, z) may match. Views backed by
+     * section palettes answer from the palette without reading blocks; false means the whole
+     * section can be skipped. Other views always answer true.
+     */
+    default boolean sectionMayContain(int x, int y, int z, Predicate<BlockState> predicate) {
+        return true;
+    }
+
+    /**
+     * The state filling the whole 16x16x16 section holding (x, y, z), or null if the section is
+     * mixed or the view can't tell without reading it.
+     */
+    default BlockState getUniformState(int x, int y, int z) {
+        return null;
+    }
+
+    /**
+     * Find the terrain surface for the column at {@code start}.
+     * See {@link TerrainUtils#findSurface(TerrainView, BlockPos)} for the search rules.
+     *
+     * @return The surface BlockPos, or null if none found
+     */
+    default BlockPos findSurface(BlockPos start) {
+        return TerrainUtils.findSurface(this, start);
+    }
+
+    /**
+     * Surface Y for the column x/z, searching from {@code y}, without allocating.
+     *
+     * @return The surface Y, or {@link TerrainUtils#NO_SURFACE} if none found
+     */
+    default int findSurfaceY(int x, int y, int z) {
+        return TerrainUtils.findSurfaceY(this, x, y, z);
+    }
+}
@@ -0,0 +1,85 @@
+package com.wcholmes.landscaper.common.util;
+
+/**
+ * Exact Euclidean distance transform in linear time (Felzenszwalb and Huttenlocher): one lower
+ * envelope of parabolas per column, then per row. No per-cell neighbourhood queries.
+ */
+public class DistanceField {
+    private static final double INF = 1e20;
+
+    /**
+     * Distance from every cell of a {@code size x size} row-major mask to the nearest cell outside
+     * it. Everything beyond the grid counts as outside, so cells on the grid edge are at distance 1.
+     *
+     * @return Distances; 0 for cells outside the mask
+     */
+    public static float[] distanceToOutside(boolean[] inside, int size) {
+        // One cell of outside padding on every side
+        int n = size + 2;
+        double[] grid = new double[n * n];
+        for (int z = 0; z < n; z++) {
+            for (int x = 0; x < n; x++) {
+                boolean in = x > 0 && z > 0 && x <= size && z <= size && inside[(z - 1) * size + (x - 1)];
+                grid[z * n + x] = in ? INF : 0;
+            }
+        }
+
+        double[] f = new double[n];
+        double[] d = new double[n];
+        int[] v = new int[n];
+        double[] boundaries = new double[n + 1];
+
+        // Columns, then rows over the column results
+        for (int x = 0; x < n; x++) {
+            for (int z = 0; z < n; z++) f[z] = grid[z * n + x];
+            transform(f, n, d, v, boundaries);
+            for (int z = 0; z < n; z++) grid[z * n + x] = d[z];
+        }
+        for (int z = 0; z < n; z++) {
+            System.arraycopy(grid, z * n, f, 0, n);
+            transform(f, n, d, v, boundaries);
+            System.arraycopy(d, 0, grid, z * n, n);
+        }
+
+        float[] result = new float[size * size];
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                result[z * size + x] = (float) Math.sqrt(grid[(z + 1) * n + (x + 1)]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 1D squared distance transform of sampled function f: d[q] = min over p of (q - p)^2 + f[p].
+     */
+    private static void transform(double[] f, int n, double[] d, int[] v, double[] boundaries) {
+        int k = 0;
+        v[0] = 0;
+        boundaries[0] = -INF;
+        boundaries[1] = INF;
+        for (int q = 1; q < n; q++) {
+            double s = intersection(f, q, v[k]);
+            while (s <= boundaries[k]) {
+                k--;
+                s = intersection(f, q, v[k]);
+            }
+            k++;
+            v[k] = q;
+            boundaries[k] = s;
+            boundaries[k + 1] = INF;
+        }
+
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (boundaries[k + 1] < q) k++;
+            double dq = q - v[k];
+            d[q] = dq * dq + f[v[k]];
+        }
+    }
+
+    // Where the parabolas rooted at q and p intersect
+    private static double intersection(double[] f, int q, int p) {
+        return ((f[q] + (double) q * q) - (f[p] + (double) p * p)) / (2.0 * q - 2.0 * p);
+    }
+}
@@ -0,0 +1,122 @@
+package com.wcholmes.landscaper.common.util;
+
+import java.util.Arrays;
+
+/**
+ * Seeded 2D simplex gradient noise with fractal octaves.
+ *
+ * <p>{@link #fill} evaluates a whole grid in one pass: gradients come from a precomputed table and
+ * lattice hashing is plain integer math, so the inner loop has no allocation, no trig and no
+ * permutation lookups.
+ */
+public final class GradientNoise {
+
+    // Simplex skew factors for 2D
+    private static final double SKEW = 0.5 * (Math.sqrt(3.0) - 1.0);
+    private static final double UNSKEW = (3.0 - Math.sqrt(3.0)) / 6.0;
+
+    // Lattice hashing (same primes as OpenSimplex2)
+    private static final long PRIME_X = 0x5205402B9270C86FL;
+    private static final long PRIME_Z = 0x598CD327003817B5L;
+    private static final long HASH_MULTIPLIER = 0x53A3F72DEECEA3FL;
+
+    // Unit gradients spread evenly around the circle, pre-scaled so output spans roughly [-1, 1]
+    private static final int GRADIENT_COUNT = 128;
+    private static final int GRADIENT_MASK = GRADIENT_COUNT - 1;
+    private static final double OUTPUT_SCALE = 99.2;
+    private static final double[] GRADIENT_X = new double[GRADIENT_COUNT];
+    private static final double[] GRADIENT_Z = new double[GRADIENT_COUNT];
+
+    static {
+        for (int i = 0; i < GRADIENT_COUNT; i++) {
+            // Offset by half a step so no gradient lies exactly on an axis
+            double angle = 2.0 * Math.PI * (i + 0.5) / GRADIENT_COUNT;
+            GRADIENT_X[i] = Math.cos(angle) * OUTPUT_SCALE;
+            GRADIENT_Z[i] = Math.sin(angle) * OUTPUT_SCALE;
+        }
+    }
+
+    private GradientNoise() {}
+
+    /**
+     * Single noise sample in roughly [-1, 1].
+     */
+    public static double sample(long seed, double x, double z) {
+        // Skew to find the simplex cell
+        double s = (x + z) * SKEW;
+        int i = fastFloor(x + s);
+        int j = fastFloor(z + s);
+        double t = (i + j) * UNSKEW;
+        double x0 = x - (i - t);
+        double z0 = z - (j - t);
+
+        // Second corner depends on which triangle of the cell we are in
+        int i1 = x0 > z0 ? 1 : 0;
+        int j1 = 1 - i1;
+        double x1 = x0 - i1 + UNSKEW;
+        double z1 = z0 - j1 + UNSKEW;
+        double x2 = x0 - 1.0 + 2.0 * UNSKEW;
+        double z2 = z0 - 1.0 + 2.0 * UNSKEW;
+
+        long xPrimed = i * PRIME_X;
+        long zPrimed = j * PRIME_Z;
+
+        return corner(seed, xPrimed, zPrimed, x0, z0)
+            + corner(seed, xPrimed + i1 * PRIME_X, zPrimed + j1 * PRIME_Z, x1, z1)
+            + corner(seed, xPrimed + PRIME_X, zPrimed + PRIME_Z, x2, z2);
+    }
+
+    /**
+     * Fill a width x depth grid (row-major, index = z * width + x) with fractal noise.
+     * Each octave doubles the frequency and scales the amplitude by {@code persistence};
+     * the sum is normalized so the result stays in roughly [-1, 1].
+     *
+     * @param originX World X of grid column 0
+     * @param originZ World Z of grid row 0
+     * @param frequency Base frequency in cycles per block
+     * @param octaves Number of octaves (at least 1)
+     * @param persistence Amplitude falloff per octave (0-1, higher = rougher)
+     * @param out Receives the values; must hold width * depth entries
+     */
+    public static void fill(long seed, int originX, int originZ, int width, int depth,
+                            double frequency, int octaves, double persistence, double[] out) {
+        Arrays.fill(out, 0, width * depth, 0.0);
+
+        double amplitude = 1.0;
+        double totalAmplitude = 0.0;
+        for (int octave = 0; octave < octaves; octave++) {
+            long octaveSeed = seed + octave;
+            for (int z = 0; z < depth; z++) {
+                double worldZ = (originZ + z) * frequency;
+                int row = z * width;
+                for (int x = 0; x < width; x++) {
+                    out[row + x] += amplitude * sample(octaveSeed, (originX + x) * frequency, worldZ);
+                }
+            }
+            totalAmplitude += amplitude;
+            amplitude *= persistence;
+            frequency *= 2.0;
+        }
+
+        double normalize = 1.0 / totalAmplitude;
+        for (int i = 0, n = width * depth; i < n; i++) {
+            out[i] *= normalize;
+        }
+    }
+
+    private static double corner(long seed, long xPrimed, long zPrimed, double dx, double dz) {
+        double a = 0.5 - dx * dx - dz * dz;
+        if (a <= 0.0) return 0.0;
+
+        long hash = (seed ^ xPrimed ^ zPrimed) * HASH_MULTIPLIER;
+        int index = (int) (hash >>> 57) & GRADIENT_MASK;
+
+        a *= a;
+        return a * a * (GRADIENT_X[index] * dx + GRADIENT_Z[index] * dz);
+    }
+
+    private static int fastFloor(double value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+}
@@ -0,0 +1,148 @@
+package com.wcholmes.landscaper.common.util;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Messy-edge footprints: a shape at its radius, with the outline randomly frayed inwards and
+ * randomly grown by up to {@code extension} blocks outwards. Decisions hash the absolute world
+ * column, so every caller (the strategy, a preview) gets exactly the same mask for the same
+ * center, radius, shape and extension. Masks are cached by that key.
+ *
+ * <p>Distances from the outline are grown ring by ring over the whole band at once, alternating
+ * 4- and 8-neighbour steps to approximate Euclidean distance. That works for any shape,
+ * including rings and bitmasks.
+ */
+public class MessyEdge {
+    // Inside the outline, only rings up to this deep may fray
+    private static final int FADE_DISTANCE = 2;
+    private static final int CACHE_SIZE = 16;
+
+    private static final byte UNSET = -1;
+    private static final byte GROWING = Byte.MAX_VALUE;
+
+    private record Key(Shape shape, int centerX, int centerZ, int radius, int extension) {}
+
+    private static final Map<Key, Shape.Mask> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Shape.Mask> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The messy-edge mask around {@code center}, with radius {@code radius + extension}.
+     * Without an extension this is just the shape's mask.
+     */
+    public static Shape.Mask mask(Shape shape, BlockPos center, int radius, int extension) {
+        if (extension <= 0) return shape.mask(radius);
+
+        Key key = new Key(shape, center.getX(), center.getZ(), radius, extension);
+        synchronized (CACHE) {
+            Shape.Mask cached = CACHE.get(key);
+            if (cached != null) return cached;
+        }
+        Shape.Mask mask = build(shape, center, radius, extension);
+        synchronized (CACHE) {
+            CACHE.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Build the mask without the cache.
+     */
+    public static Shape.Mask build(Shape shape, BlockPos center, int radius, int extension) {
+        int extent = radius + extension;
+        int size = extent * 2 + 1;
+        Shape.Mask base = shape.mask(radius);
+
+        // Rings from the outline: inside cells count inwards (1 = outline), outside cells outwards
+        boolean[] inside = new boolean[size * size];
+        for (int dz = -extent; dz <= extent; dz++) {
+            for (int dx = -extent; dx <= extent; dx++) {
+                inside[(dz + extent) * size + (dx + extent)] = base.contains(dx, dz);
+            }
+        }
+        byte[] inward = rings(inside, true, size, FADE_DISTANCE + 1);
+        byte[] outward = rings(inside, false, size, extension);
+
+        long[] bits = new long[(size * size + 63) >> 6];
+        for (int dz = -extent; dz <= extent; dz++) {
+            for (int dx = -extent; dx <= extent; dx++) {
+                int index = (dz + extent) * size + (dx + extent);
+                if (include(inside[index], inside[index] ? inward[index] : outward[index],
+                        center.getX() + dx, center.getZ() + dz, extension)) {
+                    bits[index >> 6] |= 1L << index;
+                }
+            }
+        }
+        return new Shape.Mask(extent, bits);
+    }
+
+    private static boolean include(boolean inside, byte ring, int worldX, int worldZ, int extension) {
+        if (inside) {
+            int edgeDistance = ring - 1;
+            // Deep inside or right on the outline: always included
+            if (ring == UNSET || edgeDistance <= 0 || edgeDistance >= FADE_DISTANCE) return true;
+        } else if (ring == UNSET) {
+            return false;
+        }
+
+        long hash = TerrainRandom.hash(0L, 0, worldX, worldZ);
+        if (!inside) {
+            // Grow out by 0 to extension blocks
+            return ring <= (int) ((hash >>> 1) % (extension + 1));
+        }
+        // Just inside the outline - randomly fade out, more often closer to the edge
+        double fadeChance = (FADE_DISTANCE - (ring - 1)) / 3.0;
+        return TerrainRandom.toDouble(hash) > fadeChance;
+    }
+
+    /**
+     * Ring index (1..maxRing) of every cell on the {@code from} side, counting from the cells on
+     * the other side; {@link #UNSET} beyond maxRing.
+     */
+    private static byte[] rings(boolean[] inside, boolean from, int size, int maxRing) {
+        byte[] ring = new byte[inside.length];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = inside[i] == from ? UNSET : 0;
+        }
+        for (int step = 1; step <= maxRing; step++) {
+            boolean diagonal = (step & 1) == 0;
+            byte previous = (byte) (step - 1);
+            boolean grew = false;
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int index = z * size + x;
+                    if (ring[index] != UNSET) continue;
+                    if (touches(ring, size, x, z, previous, diagonal)) {
+                        ring[index] = GROWING;   // Settled below, so it can't spread within this step
+                        grew = true;
+                    }
+                }
+            }
+            if (!grew) break;
+            for (int i = 0; i < ring.length; i++) {
+                if (ring[i] == GROWING) ring[i] = (byte) step;
+            }
+        }
+        return ring;
+    }
+
+    private static boolean touches(byte[] ring, int size, int x, int z, byte value, boolean diagonal) {
+        for (int oz = -1; oz <= 1; oz++) {
+            for (int ox = -1; ox <= 1; ox++) {
+                if (ox == 0 && oz == 0) continue;
+                if (!diagonal && ox != 0 && oz != 0) continue;
+                int nx = x + ox;
+                int nz = z + oz;
+                if (nx < 0 || nz < 0 || nx >= size || nz >= size) continue;
+                if (ring[nz * size + nx] == value) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.wcholmes.landscaper.common.util;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of positions stored as packed longs ({@link BlockPos#asLong()}), so iterating a
+ * footprint creates no BlockPos objects. Read coordinates by index, or load a position into a
+ * caller-owned {@link BlockPos.MutableBlockPos} cursor. Footprints come from {@link Shape}.
+ */
+public class PackedPositions {
+
+    private long[] positions;
+    private int size;
+
+    public PackedPositions(int capacity) {
+        this.positions = new long[Math.max(1, capacity)];
+    }
+
+    public void add(int x, int y, int z) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = BlockPos.asLong(x, y, z);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getLong(int index) {
+        return positions[index];
+    }
+
+    public int getX(int index) {
+        return BlockPos.getX(positions[index]);
+    }
+
+    public int getY(int index) {
+        return BlockPos.getY(positions[index]);
+    }
+
+    public int getZ(int index) {
+        return BlockPos.getZ(positions[index]);
+    }
+
+    /**
+     * Load the position at {@code index} into {@code cursor}.
+     *
+     * @return The cursor
+     */
+    public BlockPos.MutableBlockPos get(int index, BlockPos.MutableBlockPos cursor) {
+        return cursor.set(positions[index]);
+    }
+}
@@ -0,0 +1,167 @@
+package com.wcholmes.landscaper.common.util;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Brush footprint shape. A shape only decides which (dx, dz) offsets from the center belong to
+ * it at a given radius; the result is rasterized once per radius into a {@link Mask} and cached,
+ * so repeat operations skip shape generation entirely.
+ *
+ * <p>New brushes only need to implement {@link #includes}. Shapes are kept as constants, like
+ * {@link #CIRCLE} and {@link #SQUARE}, so every operation shares one cache per shape.
+ */
+public abstract class Shape {
+    public static final Shape CIRCLE = new Shape("circle") {
+        @Override
+        protected boolean includes(int dx, int dz, int radius) {
+            return dx * dx + dz * dz <= radius * radius;
+        }
+    };
+
+    public static final Shape SQUARE = new Shape("square") {
+        @Override
+        protected boolean includes(int dx, int dz, int radius) {
+            return true;
+        }
+    };
+
+    private final String name;
+    private final ConcurrentHashMap<Integer, Mask> masks = new ConcurrentHashMap<>();
+
+    protected Shape(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The configured footprint: circle or square.
+     */
+    public static Shape of(boolean circle) {
+        return circle ? CIRCLE : SQUARE;
+    }
+
+    /**
+     * Whether offset (dx, dz) belongs to the shape; both are within [-radius, radius].
+     * Only called while rasterizing a mask.
+     */
+    protected abstract boolean includes(int dx, int dz, int radius);
+
+    /**
+     * The shape rasterized at {@code radius}, cached per radius.
+     */
+    public Mask mask(int radius) {
+        return masks.computeIfAbsent(radius, this::rasterize);
+    }
+
+    /**
+     * Columns of the shape around {@code center}, at the center's Y, in chunk-major order.
+     */
+    public PackedPositions positions(BlockPos center, int radius) {
+        return mask(radius).place(center);
+    }
+
+    public boolean contains(BlockPos center, int radius, int x, int z) {
+        return mask(radius).contains(x - center.getX(), z - center.getZ());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Mask rasterize(int radius) {
+        int size = radius * 2 + 1;
+        long[] bits = new long[(size * size + 63) >> 6];
+        for (int dz = -radius; dz <= radius; dz++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                if (includes(dx, dz, radius)) {
+                    int index = (dz + radius) * size + (dx + radius);
+                    bits[index >> 6] |= 1L << index;
+                }
+            }
+        }
+        return new Mask(radius, bits);
+    }
+
+    /**
+     * Immutable bit grid of a footprint over the {@code (2 * radius + 1)^2} square around its
+     * center, row-major (index {@code (dz + radius) * size + (dx + radius)}).
+     */
+    public static final class Mask {
+        private final int radius;
+        private final int size;
+        private final long[] bits;
+        private final int count;
+
+        public Mask(int radius, long[] bits) {
+            this.radius = radius;
+            this.size = radius * 2 + 1;
+            this.bits = bits;
+
+            int cells = 0;
+            for (long word : bits) cells += Long.bitCount(word);
+            this.count = cells;
+        }
+
+        public int getRadius() {
+            return radius;
+        }
+
+        /**
+         * Number of columns in the mask.
+         */
+        public int count() {
+            return count;
+        }
+
+        public boolean contains(int dx, int dz) {
+            if (dx < -radius || dx > radius || dz < -radius || dz > radius) return false;
+            int index = index(dx, dz);
+            return (bits[index >> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * The mask as a fresh {@code boolean[size * size]} in the same row-major layout.
+         */
+        public boolean[] toArray() {
+            boolean[] result = new boolean[size * size];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (bits[i >> 6] & (1L << i)) != 0;
+            }
+            return result;
+        }
+
+        private int index(int dx, int dz) {
+            return (dz + radius) * size + (dx + radius);
+        }
+
+        /**
+         * Columns of the mask around {@code center}, at the center's Y, in chunk-major order
+         * (walking the chunks the square covers, so consecutive columns share a chunk).
+         */
+        public PackedPositions place(BlockPos center) {
+            PackedPositions result = new PackedPositions(count);
+            int y = center.getY();
+            int minX = center.getX() - radius;
+            int minZ = center.getZ() - radius;
+            int maxX = center.getX() + radius;
+            int maxZ = center.getZ() + radius;
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                int z0 = Math.max(minZ, chunkZ << 4);
+                int z1 = Math.min(maxZ, (chunkZ << 4) + 15);
+                for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                    int x0 = Math.max(minX, chunkX << 4);
+                    int x1 = Math.min(maxX, (chunkX << 4) + 15);
+                    for (int z = z0; z <= z1; z++) {
+                        int row = (z - minZ) * size - minX;
+                        for (int x = x0; x <= x1; x++) {
+                            int index = row + x;
+                            if ((bits[index >> 6] & (1L << index)) != 0) result.add(x, y, z);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
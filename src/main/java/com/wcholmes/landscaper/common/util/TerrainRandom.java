@@ -0,0 +1,68 @@
+package com.wcholmes.landscaper.common.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Seeded, counter-based random streams for one terrain operation.
+ *
+ * <p>{@link #at(int, int, int)} restarts the generator on a stream derived only from
+ * (operation seed, stream id, column), so a column gets the same values no matter which order or
+ * thread processes it. That makes an operation reproducible from its seed alone.
+ *
+ * <p>Not thread-safe: give each worker its own instance (same seed gives the same streams).
+ */
+public final class TerrainRandom implements RandomGenerator {
+
+    // SplitMix64 constants (same as java.util.SplittableRandom)
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long state;
+
+    public TerrainRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Restart on the stream for one column of one pass.
+     *
+     * @param stream Caller-chosen id so different passes draw independent values for the same column
+     * @return this, for chaining
+     */
+    public TerrainRandom at(int stream, int x, int z) {
+        state = hash(seed, stream, x, z);
+        return this;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Stateless hash of (seed, stream, x, z) - for single decisions that don't need a stream.
+     */
+    public static long hash(long seed, int stream, int x, int z) {
+        long h = mix64(seed + GOLDEN_GAMMA * stream);
+        h = mix64(h ^ (x * 0xC2B2AE3D27D4EB4FL));
+        return mix64(h ^ (z * 0x165667B19E3779F9L));
+    }
+
+    /**
+     * Uniform double in [0, 1) from a hash value.
+     */
+    public static double toDouble(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,105 +1,188 @@
 package com.wcholmes.landscaper.common.util;
 
 import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.config.SafeBlockSet;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.Random;
-
 /**
  * Shared utility methods for terrain operations used by both the staff and highlight renderer.
  * This ensures the highlight visualization matches the actual terrain modification exactly.
  */
 public class TerrainUtils {
 
+    public static final int NO_SURFACE = Integer.MIN_VALUE;
+
     // Surface search constants
     private static final int HEIGHT_ABOVE = 3;   // Blocks above click point
     private static final int HEIGHT_BELOW = 10;  // Blocks below click point
     private static final int SURFACE_SEARCH_UP = HEIGHT_ABOVE + 10;   // 13 blocks up
     private static final int SURFACE_SEARCH_DOWN = HEIGHT_BELOW + 10; // 20 blocks down
-
-    // Messy edge constants
-    private static final int MESSY_EDGE_FADE_DISTANCE = 2;
-    private static final int MESSY_EDGE_MAX_EXTENSION = 3; // 0, 1, or 2 blocks
+    private static final int SURFACE_FOLLOW_REACH = SURFACE_SEARCH_UP + SURFACE_SEARCH_DOWN; // Span of one full search
 
     /**
      * Finds the surface block at the given starting position by searching up then down.
      * Only recognizes blocks in the safe blocks list as valid surface blocks.
      * This ensures trees, structures, and other obstacles are skipped.
      *
-     * @param level The level to search in
+     * @param terrain The terrain view to search in
      * @param start The starting position to search from
      * @return The surface BlockPos, or null if none found
      */
-    public static BlockPos findSurface(Level level, BlockPos start) {
-        // Search upward first to handle being underground
-        for (int y = 0; y < SURFACE_SEARCH_UP; y++) {
-            BlockPos checkPos = start.offset(0, y, 0);
-            BlockState current = level.getBlockState(checkPos);
+    public static BlockPos findSurface(TerrainView terrain, BlockPos start) {
+        int y = terrain.findSurfaceY(start.getX(), start.getY(), start.getZ());
+        return y == NO_SURFACE ? null : new BlockPos(start.getX(), y, start.getZ());
+    }
 
+    /**
+     * Allocation-free form of {@link #findSurface(TerrainView, BlockPos)}.
+     * Once the search leaves the starting section, sections whose palette holds no safe block
+     * are skipped without reading them.
+     *
+     * @return The surface Y, or {@link #NO_SURFACE} if none found
+     */
+    public static int findSurfaceY(TerrainView terrain, int x, int startY, int z) {
+        SafeBlockSet safeBlocks = NaturalizationConfig.getSafeBlocks();
+
+        // Search upward first to handle being underground
+        int top = startY + SURFACE_SEARCH_UP - 1;
+        for (int y = startY; y <= top; y++) {
+            // Entering a new section: skip to its top if nothing in it can be surface
+            if ((y & 15) == 0 && y != startY && !terrain.sectionMayContain(x, y, z, safeBlocks)) {
+                y |= 15;
+                continue;
+            }
             // Found surface: block in safe list (replaceable terrain like dirt, grass, stone)
             // This skips trees, vegetation, and other non-terrain blocks
-            if (NaturalizationConfig.getSafeBlocks().contains(current.getBlock())) {
-                return checkPos;
+            if (safeBlocks.contains(terrain.getBlockState(x, y, z))) {
+                return y;
             }
         }
 
-        // If not found above, search downward
-        for (int y = 0; y > -SURFACE_SEARCH_DOWN; y--) {
-            BlockPos checkPos = start.offset(0, y, 0);
-            BlockState current = level.getBlockState(checkPos);
-
+        // If not found above, search downward (the start itself was checked above)
+        int bottom = startY - SURFACE_SEARCH_DOWN + 1;
+        for (int y = startY - 1; y >= bottom; y--) {
+            // Entering a new section from above: skip to its bottom if nothing in it can be surface
+            if ((y & 15) == 15 && !terrain.sectionMayContain(x, y, z, safeBlocks)) {
+                y &= ~15;
+                continue;
+            }
             // Found surface: block in safe list (replaceable terrain)
-            if (NaturalizationConfig.getSafeBlocks().contains(current.getBlock())) {
-                return checkPos;
+            if (safeBlocks.contains(terrain.getBlockState(x, y, z))) {
+                return y;
+            }
+        }
+
+        // No surface found - caller will skip this column
+        return NO_SURFACE;
+    }
+
+    /**
+     * {@link #findSurfaceY(TerrainView, int, int, int)} for a column whose highest safe block is
+     * already known (e.g. from {@link com.wcholmes.landscaper.common.terrain.SurfaceIndex}).
+     * Blocks are only read when the answer may lie above the start.
+     *
+     * @param highestSafeY Highest safe block Y in the column, or {@link #NO_SURFACE} if it has none
+     */
+    public static int findSurfaceY(TerrainView terrain, int x, int startY, int z, int highestSafeY) {
+        if (highestSafeY == NO_SURFACE) return NO_SURFACE;
+        if (highestSafeY == startY) return startY;
+        if (highestSafeY < startY) {
+            // Nothing safe at or above the start, so the downward search stops at the highest safe block
+            return highestSafeY > startY - SURFACE_SEARCH_DOWN ? highestSafeY : NO_SURFACE;
+        }
+        return findSurfaceY(terrain, x, startY, z);
+    }
+
+    /**
+     * Surface search for grid traversals, started from {@code nearY} (usually a neighbouring
+     * column's surface) and walking outward to the nearest exposed safe block: up through safe
+     * blocks while the start is buried, down through open cells (air, fluid, replaceable plants)
+     * while it is in the open. A start inside some other solid block (ore, a log) climbs until the
+     * column opens up, then descends from there.
+     * On continuous terrain that is the height difference plus one or two reads per column, and
+     * slopes are followed however far they climb from the traversal's start.
+     *
+     * @return The surface Y, or {@link #NO_SURFACE} if none within one search span of {@code nearY}
+     */
+    public static int findSurfaceYNear(TerrainView terrain, int x, int nearY, int z) {
+        SafeBlockSet safeBlocks = NaturalizationConfig.getSafeBlocks();
+        BlockState start = terrain.getBlockState(x, nearY, z);
+        int top = nearY + SURFACE_FOLLOW_REACH;
+
+        if (safeBlocks.contains(start)) {
+            // Buried: climb to the top of the safe run
+            int y = nearY;
+            while (y < top) {
+                int above = y + 1;
+                // Entering a section of one safe state: continue from its top block
+                if ((above & 15) == 0) {
+                    BlockState uniform = terrain.getUniformState(x, above, z);
+                    if (uniform != null && safeBlocks.contains(uniform)) {
+                        y = above | 15;
+                        continue;
+                    }
+                }
+                if (!safeBlocks.contains(terrain.getBlockState(x, above, z))) {
+                    return y;
+                }
+                y = above;
             }
+            return NO_SURFACE;
         }
 
-        // Return null if no surface found - caller will skip this column
-        return null;
+        int openY = nearY;
+        if (!isOpen(start)) {
+            // Inside a solid block that isn't surface: climb to the first open cell
+            while (true) {
+                openY++;
+                if (openY >= top) return NO_SURFACE;
+                // Entering a section of one solid state: continue from its top block
+                if ((openY & 15) == 0) {
+                    BlockState uniform = terrain.getUniformState(x, openY, z);
+                    if (uniform != null && !isOpen(uniform)) {
+                        openY |= 15;
+                        continue;
+                    }
+                }
+                if (isOpen(terrain.getBlockState(x, openY, z))) break;
+            }
+        }
+
+        // In the open: descend to the first safe block
+        int bottom = nearY - SURFACE_FOLLOW_REACH;
+        for (int y = openY - 1; y > bottom; y--) {
+            // Entering a new section from above: skip to its bottom if nothing in it can be surface
+            if ((y & 15) == 15 && !terrain.sectionMayContain(x, y, z, safeBlocks)) {
+                y &= ~15;
+                continue;
+            }
+            if (safeBlocks.contains(terrain.getBlockState(x, y, z))) {
+                return y;
+            }
+        }
+        return NO_SURFACE;
+    }
+
+    // Cells a surface search passes down through: air, fluid and replaceable blocks (grass, snow layers)
+    private static boolean isOpen(BlockState state) {
+        return state.isAir() || state.liquid() || state.canBeReplaced();
     }
 
     /**
      * Determines if a block at the given offset should be included when messy edge is enabled.
-     * Uses deterministic randomness based on absolute world position to ensure highlight matches effect.
+     * Reads the shared {@link MessyEdge} mask, so the highlight matches the actual effect.
      *
      * @param x X offset from center
      * @param z Z offset from center
      * @param radius The configured radius
      * @param isCircle Whether to use circle shape (vs square)
-     * @param center The center BlockPos (for deterministic randomness)
+     * @param center The center BlockPos (the mask hashes absolute world positions)
      * @param maxExtension Maximum blocks beyond radius (0-3)
      * @return true if this position should be included
      */
     public static boolean shouldApplyMessyEdge(int x, int z, int radius, boolean isCircle, BlockPos center, int maxExtension) {
-        // effectiveRadius calculation: radius 1 = 0, radius 2 = 1, etc.
-        int effectiveRadius = radius - 1;
-
-        // Calculate distance from center
-        double distance = isCircle ? Math.sqrt(x * x + z * z) : Math.max(Math.abs(x), Math.abs(z));
-        double edgeDistance = effectiveRadius - distance;
-
-        // If we're more than 2 blocks from edge, always include
-        if (edgeDistance > MESSY_EDGE_FADE_DISTANCE) {
-            return true;
-        }
-
-        // Use deterministic random based on absolute world position
-        // This ensures highlight and actual effect use the same random values
-        // Combine center position with offset for unique seed per block
-        long seed = ((long)center.getX() + x) * 31L + ((long)center.getZ() + z) * 37L;
-        Random random = new Random(seed);
-
-        // If we're exactly at or beyond effective radius, randomly extend by 0 to maxExtension blocks
-        if (edgeDistance <= 0) {
-            int extension = maxExtension > 0 ? random.nextInt(maxExtension + 1) : 0;
-            return distance <= effectiveRadius + extension;
-        }
-
-        // We're within 2 blocks of edge - randomly fade out
-        // Closer to edge = higher chance of being excluded
-        double fadeChance = (MESSY_EDGE_FADE_DISTANCE - edgeDistance) / 3.0; // 0% at edge-2, 33% at edge-1, 66% at edge
-        return random.nextDouble() > fadeChance;
+        return MessyEdge.mask(Shape.of(isCircle), center, radius, maxExtension).contains(x, z);
     }
 }
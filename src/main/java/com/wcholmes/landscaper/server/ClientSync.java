@@ -0,0 +1,97 @@
+package com.wcholmes.landscaper.server;
+
+import com.mojang.logging.LogUtils;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.protocol.game.ClientboundLevelChunkWithLightPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.slf4j.Logger;
+
+/**
+ * Commits a change set with client updates sized to how dense the edit is.
+ *
+ * <p>Sparse chunks commit normally: the chunk holder already collects a tick's changes per
+ * section and sends one section update per section at the end of the tick. Chunks with at least
+ * {@link #DENSE_CHUNK_CHANGES} changes commit without client updates and are resent whole once
+ * afterwards - cheaper than section updates listing most of their blocks, and the client
+ * rebuilds each section once.
+ */
+public class ClientSync {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // A quarter of a 16x16x16 section's worth of changes in one chunk column
+    private static final int DENSE_CHUNK_CHANGES = 1024;
+
+    /**
+     * @param flags Block update flags for the writes; dense chunks drop UPDATE_CLIENTS
+     * @return Number of blocks the level actually changed
+     */
+    public static int commit(ServerLevel level, ChangeSet changes, int flags) {
+        // Changes per chunk column
+        Long2IntOpenHashMap perChunk = new Long2IntOpenHashMap();
+        changes.forEach((pos, state) -> perChunk.addTo(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), 1));
+
+        LongSet dense = new LongOpenHashSet();
+        perChunk.long2IntEntrySet().forEach(entry -> {
+            if (entry.getIntValue() >= DENSE_CHUNK_CHANGES) dense.add(entry.getLongKey());
+        });
+        if (dense.isEmpty()) return changes.commit(level, flags);
+
+        int denseFlags = flags & ~Block.UPDATE_CLIENTS;
+        LongSet borderUpdates = new LongOpenHashSet();
+        int[] changed = new int[1];
+        changes.forEach((pos, state) -> {
+            boolean inDense = dense.contains(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+            if (level.setBlock(pos, state, inDense ? denseFlags : flags)) {
+                changed[0]++;
+            }
+            // Shape updates spill one block into neighbouring chunks without a client update
+            if (inDense) markAcrossBorder(pos, dense, borderUpdates);
+        });
+
+        // Resend dense chunks whole; light follows through the normal light update packets
+        int resent = 0;
+        for (long chunkKey : dense) {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            if (chunk == null) continue;
+
+            ClientboundLevelChunkWithLightPacket packet =
+                new ClientboundLevelChunkWithLightPacket(chunk, level.getLightEngine(), null, null);
+            for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false)) {
+                player.connection.send(packet);
+            }
+            resent++;
+        }
+        for (long packed : borderUpdates) {
+            level.getChunkSource().blockChanged(BlockPos.of(packed));
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Client sync: {} chunks resent whole, {} sent as section updates, {} border blocks",
+                resent, perChunk.size() - dense.size(), borderUpdates.size());
+        }
+        return changed[0];
+    }
+
+    private static void markAcrossBorder(BlockPos pos, LongSet dense, LongSet borderUpdates) {
+        int localX = pos.getX() & 15;
+        int localZ = pos.getZ() & 15;
+        if (localX == 0) markIfSparse(pos.west(), dense, borderUpdates);
+        if (localX == 15) markIfSparse(pos.east(), dense, borderUpdates);
+        if (localZ == 0) markIfSparse(pos.north(), dense, borderUpdates);
+        if (localZ == 15) markIfSparse(pos.south(), dense, borderUpdates);
+    }
+
+    private static void markIfSparse(BlockPos pos, LongSet dense, LongSet borderUpdates) {
+        if (!dense.contains(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4))) {
+            borderUpdates.add(pos.asLong());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.wcholmes.landscaper.server;
+
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps item drops caused by a landscaping commit from ever spawning. A commit opens a window
+ * over the blocks it changes and their neighbours for the tick of the commit and the next one;
+ * {@link ServerEventHandler} cancels item entities joining the level on one of those blocks while
+ * the window is open. Drops anywhere else (player throws, hoppers, mobs), or after the window, are untouched.
+ *
+ * <p>Only used from the server thread.
+ */
+public class DropSuppression {
+    // Plants that lose their support break during settling, or on a scheduled tick one tick later
+    private static final int WINDOW_TICKS = 2;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final List<Window> WINDOWS = new ArrayList<>();
+
+    private record Window(ResourceKey<Level> dimension, BoundingBox region, LongOpenHashSet positions, long untilGameTime) {}
+
+    /**
+     * Suppress drops on every changed block and its 6 neighbours from now until the next tick.
+     * Call before the commit.
+     */
+    public static void open(Level level, ChangeSet changes) {
+        BoundingBox bounds = changes.getBounds();
+        if (bounds == null) return;
+
+        // Every level shares the overworld's game time, so expired windows of any dimension go here
+        long now = level.getGameTime();
+        WINDOWS.removeIf(window -> now > window.untilGameTime());
+
+        LongOpenHashSet positions = new LongOpenHashSet(changes.size() * 2);
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        changes.forEach((pos, planned) -> {
+            positions.add(pos.asLong());
+            for (Direction direction : DIRECTIONS) {
+                positions.add(neighbor.setWithOffset(pos, direction).asLong());
+            }
+        });
+        WINDOWS.add(new Window(level.dimension(), bounds.inflatedBy(1), positions, now + WINDOW_TICKS));
+    }
+
+    /**
+     * True if the entity is an item drop on a block of an open window.
+     */
+    public static boolean shouldSuppress(Entity entity) {
+        if (WINDOWS.isEmpty() || !(entity instanceof ItemEntity)) return false;
+
+        Level level = entity.level();
+        long now = level.getGameTime();
+        BlockPos pos = entity.blockPosition();
+        for (Window window : WINDOWS) {
+            if (window.dimension() != level.dimension() || now > window.untilGameTime()) continue;
+            if (window.region().isInside(pos.getX(), pos.getY(), pos.getZ()) && window.positions().contains(pos.asLong())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void clear() {
+        WINDOWS.clear();
+    }
+}
@@ -2,7 +2,13 @@ package com.wcholmes.landscaper.server;
 
 import com.mojang.logging.LogUtils;
 import com.wcholmes.landscaper.Landscaper;
+import com.wcholmes.landscaper.common.terrain.SurfaceIndex;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -30,6 +36,51 @@ public class ServerEventHandler {
         }
     }
 
+    /**
+     * Called when an entity is added to a level.
+     * Cancels item drops spawned by a landscaping commit before they exist.
+     */
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (!event.getLevel().isClientSide() && !event.loadedFromDisk()
+                && DropSuppression.shouldSuppress(event.getEntity())) {
+            event.setCanceled(true);
+        }
+    }
+
+    /**
+     * Called after a block changes in a way that notifies its neighbours.
+     * Keeps the surface index current.
+     */
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            SurfaceIndex.blockChanged(level, event.getPos(), event.getState());
+        }
+    }
+
+    /**
+     * Called when a chunk unloads.
+     * Drops its surface index entries.
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            SurfaceIndex.chunkUnloaded(level, event.getChunk().getPos());
+        }
+    }
+
+    /**
+     * Called when a level unloads.
+     * Drops its whole surface index.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+            SurfaceIndex.levelUnloaded(level);
+        }
+    }
+
     /**
      * Called when the server is stopping.
      * Clears all temporary data.
@@ -37,6 +88,8 @@ public class ServerEventHandler {
     @SubscribeEvent
     public static void onServerStopping(ServerStoppingEvent event) {
         // PlayerSettings cleanup happens automatically
+        DropSuppression.clear();
+        SurfaceIndex.clear();
         LOGGER.info("Server stopping");
     }
 }
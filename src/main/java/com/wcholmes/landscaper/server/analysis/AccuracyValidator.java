@@ -1,7 +1,8 @@
 package com.wcholmes.landscaper.server.analysis;
 
-import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
+import com.wcholmes.landscaper.common.util.PackedPositions;
+import com.wcholmes.landscaper.common.util.TerrainUtils;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
@@ -47,18 +48,21 @@ public class AccuracyValidator {
     /**
      * Capture terrain snapshot for validation
      */
-    public static Snapshot captureSnapshot(Level level, List<BlockPos> positions) {
+    public static Snapshot captureSnapshot(TerrainView terrain, PackedPositions positions) {
         Map<Block, Integer> surfaceBlocks = new HashMap<>();
         List<Integer> elevations = new ArrayList<>();
 
-        for (BlockPos pos : positions) {
+        for (int i = 0; i < positions.size(); i++) {
+            int x = positions.getX(i);
+            int z = positions.getZ(i);
+
             // Find surface
-            BlockPos surface = com.wcholmes.landscaper.common.util.TerrainUtils.findSurface(level, pos);
-            if (surface == null) continue;
+            int surfaceY = terrain.findSurfaceY(x, positions.getY(i), z);
+            if (surfaceY == TerrainUtils.NO_SURFACE) continue;
 
-            elevations.add(surface.getY());
+            elevations.add(surfaceY);
 
-            BlockState state = level.getBlockState(surface);
+            BlockState state = terrain.getBlockState(x, surfaceY, z);
             if (!state.isAir()) {
                 surfaceBlocks.merge(state.getBlock(), 1, Integer::sum);
             }
@@ -1,14 +1,14 @@
 package com.wcholmes.landscaper.server.analysis;
 
+import com.wcholmes.landscaper.common.terrain.TerrainView;
 import com.wcholmes.landscaper.common.util.TerrainUtils;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Bilateral filter for block placement - preserves terrain edges while smoothing.
@@ -22,33 +22,59 @@ public class BilateralBlockFilter {
 
     private static final double SPATIAL_SIGMA = 2.0; // Spatial Gaussian spread
     private static final int KERNEL_RADIUS = 3; // 3-block radius (7x7 kernel)
+    private static final int KERNEL_SIZE = KERNEL_RADIUS * 2 + 1;
+
+    private static final int GRASS_FAMILY = 1;
+    private static final int STONE_FAMILY = 2;
+    private static final int SAND_FAMILY = 4;
+    private static final Map<Block, Integer> FAMILIES = new ConcurrentHashMap<>();
+
+    // Spatial weight per kernel cell, row-major (dz, dx) - fixed, so computed once
+    private static final double[] SPATIAL_WEIGHTS = new double[KERNEL_SIZE * KERNEL_SIZE];
+
+    static {
+        for (int z = -KERNEL_RADIUS; z <= KERNEL_RADIUS; z++) {
+            for (int x = -KERNEL_RADIUS; x <= KERNEL_RADIUS; x++) {
+                double distance = Math.sqrt(x * x + z * z);
+                SPATIAL_WEIGHTS[(z + KERNEL_RADIUS) * KERNEL_SIZE + (x + KERNEL_RADIUS)] =
+                    gaussianWeight(distance, SPATIAL_SIGMA);
+            }
+        }
+    }
 
     /**
      * Select block using bilateral filter - blends with neighbors while preserving edges
      *
-     * @param level The world level
+     * @param terrain Terrain to read neighbours from
      * @param pos Position to place block
      * @param proposedBlock Block from profile analysis
      * @return Filtered block (blended with neighbors)
      */
-    public static Block filterBlock(Level level, BlockPos pos, Block proposedBlock) {
-        Map<Block, Double> blockWeights = new HashMap<>();
-        double totalWeight = 0.0;
+    public static Block filterBlock(TerrainView terrain, BlockPos pos, Block proposedBlock) {
+        return filterBlock(terrain, pos.getX(), pos.getY(), pos.getZ(), proposedBlock);
+    }
+
+    /**
+     * {@link #filterBlock(TerrainView, BlockPos, Block)} by coordinates.
+     */
+    public static Block filterBlock(TerrainView terrain, int posX, int posY, int posZ, Block proposedBlock) {
+        // At most one entry per kernel cell; a handful of distinct blocks in practice
+        Block[] blocks = new Block[SPATIAL_WEIGHTS.length];
+        double[] weights = new double[SPATIAL_WEIGHTS.length];
+        int distinct = 0;
 
-        // Sample 7x7 neighborhood (3-block radius)
+        // Sample 7x7 neighborhood (3-block radius); neighbour surfaces are searched from this column's
         for (int x = -KERNEL_RADIUS; x <= KERNEL_RADIUS; x++) {
             for (int z = -KERNEL_RADIUS; z <= KERNEL_RADIUS; z++) {
-                BlockPos neighborPos = pos.offset(x, 0, z);
-                BlockPos neighborSurface = TerrainUtils.findSurface(level, neighborPos);
-                if (neighborSurface == null) continue;
+                int surfaceY = TerrainUtils.findSurfaceYNear(terrain, posX + x, posY, posZ + z);
+                if (surfaceY == TerrainUtils.NO_SURFACE) continue;
 
-                BlockState neighborState = level.getBlockState(neighborSurface);
+                BlockState neighborState = terrain.getBlockState(posX + x, surfaceY, posZ + z);
                 Block neighborBlock = neighborState.getBlock();
                 if (neighborState.isAir()) continue;
 
-                // Calculate SPATIAL weight (Gaussian - distance-based)
-                double distance = Math.sqrt(x * x + z * z);
-                double spatialWeight = gaussianWeight(distance, SPATIAL_SIGMA);
+                // SPATIAL weight (Gaussian - distance-based), precomputed per kernel cell
+                double spatialWeight = SPATIAL_WEIGHTS[(z + KERNEL_RADIUS) * KERNEL_SIZE + (x + KERNEL_RADIUS)];
 
                 // Calculate RANGE weight (block similarity)
                 double rangeWeight = blockSimilarity(proposedBlock, neighborBlock);
@@ -56,26 +82,27 @@ public class BilateralBlockFilter {
                 // BILATERAL FILTER: Multiply spatial and range weights
                 double bilateralWeight = spatialWeight * rangeWeight;
 
-                blockWeights.merge(neighborBlock, bilateralWeight, Double::sum);
-                totalWeight += bilateralWeight;
+                int slot = 0;
+                while (slot < distinct && blocks[slot] != neighborBlock) slot++;
+                if (slot == distinct) blocks[distinct++] = neighborBlock;
+                weights[slot] += bilateralWeight;
             }
         }
 
-        if (blockWeights.isEmpty()) {
+        if (distinct == 0) {
             return proposedBlock; // Fallback
         }
 
         // Return block with highest combined weight (most similar to neighbors)
         // NEVER return water or air!
-        Block selected = blockWeights.entrySet().stream()
-            .filter(e -> e.getKey() != Blocks.WATER && e.getKey() != Blocks.AIR)
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(proposedBlock);
-
-        // Safety check
-        if (selected == Blocks.WATER || selected == Blocks.AIR) {
-            return proposedBlock; // Fallback to proposed
+        Block selected = proposedBlock;
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < distinct; i++) {
+            if (blocks[i] == Blocks.WATER || blocks[i] == Blocks.AIR) continue;
+            if (weights[i] > best) {
+                best = weights[i];
+                selected = blocks[i];
+            }
         }
 
         return selected;
@@ -111,16 +138,17 @@ public class BilateralBlockFilter {
      * Check if blocks are in the same family (related types)
      */
     private static boolean isSameFamily(Block b1, Block b2) {
-        // Grass family
-        if (isGrassFamily(b1) && isGrassFamily(b2)) return true;
-
-        // Stone family
-        if (isStoneFamily(b1) && isStoneFamily(b2)) return true;
-
-        // Sand family
-        if (isSandFamily(b1) && isSandFamily(b2)) return true;
+        return (families(b1) & families(b2)) != 0;
+    }
 
-        return false;
+    /**
+     * Family bits of a block (a block can be in several, e.g. sandstone). Name lookups build
+     * strings, so each block is resolved once.
+     */
+    private static int families(Block block) {
+        return FAMILIES.computeIfAbsent(block, b -> (isGrassFamily(b) ? GRASS_FAMILY : 0)
+            | (isStoneFamily(b) ? STONE_FAMILY : 0)
+            | (isSandFamily(b) ? SAND_FAMILY : 0));
     }
 
     private static boolean isGrassFamily(Block block) {
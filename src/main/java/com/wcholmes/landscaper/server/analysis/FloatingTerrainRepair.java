@@ -0,0 +1,225 @@
+package com.wcholmes.landscaper.server.analysis;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.config.SafeBlockSet;
+import com.wcholmes.landscaper.common.terrain.BufferedTerrainView;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.core.BlockPos;
+
+import java.util.BitSet;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Volumetric replacement for the per-column overhang scan. Loads the edited box's solidity into a
+ * bitset, flood-fills from the box faces (ground below, untouched terrain around) and then:
+ * <ul>
+ *   <li>removes small terrain pieces that nothing holds up (floaters)</li>
+ *   <li>fills small air pockets sealed inside the terrain</li>
+ * </ul>
+ * Everything is linear in the box volume; only blocks inside the footprint are ever changed.
+ */
+public class FloatingTerrainRepair {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int DEPTH_BELOW = 10;          // Same depth the overhang scan used to cover
+    private static final int HEIGHT_ABOVE = 6;          // Reshaping raises a surface by at most 1, plus cover
+    private static final int MAX_FLOATER_BLOCKS = 64;   // Larger detached pieces are left alone (islands, builds)
+    private static final int MAX_POCKET_BLOCKS = 8;     // Larger sealed voids are caves, not artifacts
+
+    /**
+     * @param footprint Columns the operation edits, indexed (z - minZ) * size + (x - minX) over the extent square
+     * @param stream Random stream id for fill block choices
+     * @return Number of blocks changed
+     */
+    public static int repair(BufferedTerrainView terrain, TerrainRandom random, int stream, TerrainProfile profile,
+                             HeightField heightField, boolean[] footprint, BlockPos center, int extent) {
+        int size = extent * 2 + 1;
+        int minX = center.getX() - extent;
+        int minZ = center.getZ() - extent;
+
+        // Vertical span of the footprint's surfaces
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                if (!footprint[z * size + x]) continue;
+                int y = heightField.getHeight(minX + x, minZ + z);
+                if (y == HeightField.NO_SURFACE) continue;
+                lowest = Math.min(lowest, y);
+                highest = Math.max(highest, y);
+            }
+        }
+        if (lowest == Integer.MAX_VALUE) return 0;
+
+        int minY = lowest - DEPTH_BELOW;
+        int sizeY = highest + HEIGHT_ABOVE - minY + 1;
+        int layer = size * size;
+        int volume = layer * sizeY;
+
+        // Load solidity once. Index = (y * size + z) * size + x
+        BitSet solid = new BitSet(volume);
+        BitSet removable = new BitSet(volume);  // Terrain or the cover that sits on it
+        BitSet air = new BitSet(volume);
+        SafeBlockSet safeBlocks = NaturalizationConfig.getSafeBlocks();
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int index = (y * size + z) * size + x;
+                    BlockState state = terrain.getBlockState(minX + x, minY + y, minZ + z);
+                    if (state.isAir()) {
+                        air.set(index);
+                    } else if (state.getBlock() != Blocks.WATER) {
+                        solid.set(index);
+                        if (safeBlocks.contains(state) || isCover(state)) removable.set(index);
+                    }
+                }
+            }
+        }
+
+        int[] queue = new int[volume];
+
+        // Solid reachable from the box faces is supported
+        BitSet supported = new BitSet(volume);
+        flood(seedFaces(solid, supported, queue, size, sizeY), solid, supported, queue, size, sizeY);
+
+        // Unsupported components: remove when small, all terrain and all inside the footprint
+        int removed = 0;
+        BitSet visited = (BitSet) supported.clone();
+        for (int start = solid.nextSetBit(0); start >= 0; start = solid.nextSetBit(start + 1)) {
+            if (visited.get(start)) continue;
+            visited.set(start);
+            queue[0] = start;
+            int count = flood(1, solid, visited, queue, size, sizeY);
+            if (count > MAX_FLOATER_BLOCKS || !allEditable(queue, count, removable, footprint, size)) continue;
+
+            for (int i = 0; i < count; i++) {
+                int index = queue[i];
+                terrain.setBlock(position(index, size, minX, minY, minZ), Blocks.AIR.defaultBlockState());
+                solid.clear(index);
+                air.set(index);
+                removed++;
+            }
+        }
+
+        // Air reachable from the box faces is open; the rest is sealed pockets
+        BitSet open = new BitSet(volume);
+        flood(seedFaces(air, open, queue, size, sizeY), air, open, queue, size, sizeY);
+
+        BitSet fill = new BitSet(volume);
+        visited = (BitSet) open.clone();
+        for (int start = air.nextSetBit(0); start >= 0; start = air.nextSetBit(start + 1)) {
+            if (visited.get(start)) continue;
+            visited.set(start);
+            queue[0] = start;
+            int count = flood(1, air, visited, queue, size, sizeY);
+            if (count > MAX_POCKET_BLOCKS || !allEditable(queue, count, null, footprint, size)) continue;
+
+            for (int i = 0; i < count; i++) fill.set(queue[i]);
+        }
+
+        // Fill column by column, bottom up, so each column draws from its own random stream
+        int filled = 0;
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                boolean columnStarted = false;
+                for (int y = 0; y < sizeY; y++) {
+                    int index = (y * size + z) * size + x;
+                    if (!fill.get(index)) continue;
+                    if (!columnStarted) {
+                        random.at(stream, minX + x, minZ + z);
+                        columnStarted = true;
+                    }
+                    Block block = profile.getConsistencyAwareSubsurfaceBlock(random);
+                    terrain.setBlock(position(index, size, minX, minY, minZ), block.defaultBlockState());
+                    filled++;
+                }
+            }
+        }
+
+        LOGGER.info("Floating terrain repair over {} blocks - floaters removed: {}, pockets filled: {}",
+            volume, removed, filled);
+        return removed + filled;
+    }
+
+    /**
+     * Queue every set cell of {@code cells} on the faces of the box.
+     *
+     * @return Number of cells queued
+     */
+    private static int seedFaces(BitSet cells, BitSet reached, int[] queue, int size, int sizeY) {
+        int tail = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    boolean face = y == 0 || y == sizeY - 1 || z == 0 || z == size - 1 || x == 0 || x == size - 1;
+                    if (!face) continue;
+                    int index = (y * size + z) * size + x;
+                    if (cells.get(index) && !reached.get(index)) {
+                        reached.set(index);
+                        queue[tail++] = index;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Breadth-first 6-connected flood through {@code cells}, starting from queue[0..tail).
+     * Reached cells are marked; the queue ends up holding every cell reached.
+     *
+     * @return Number of cells reached (including the seeds)
+     */
+    private static int flood(int tail, BitSet cells, BitSet reached, int[] queue, int size, int sizeY) {
+        int layer = size * size;
+        for (int head = 0; head < tail; head++) {
+            int index = queue[head];
+            int x = index % size;
+            int z = (index / size) % size;
+            int y = index / layer;
+
+            if (x > 0) tail = visit(index - 1, cells, reached, queue, tail);
+            if (x < size - 1) tail = visit(index + 1, cells, reached, queue, tail);
+            if (z > 0) tail = visit(index - size, cells, reached, queue, tail);
+            if (z < size - 1) tail = visit(index + size, cells, reached, queue, tail);
+            if (y > 0) tail = visit(index - layer, cells, reached, queue, tail);
+            if (y < sizeY - 1) tail = visit(index + layer, cells, reached, queue, tail);
+        }
+        return tail;
+    }
+
+    private static int visit(int index, BitSet cells, BitSet reached, int[] queue, int tail) {
+        if (cells.get(index) && !reached.get(index)) {
+            reached.set(index);
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    /**
+     * True if every queued cell is inside the footprint (and, when given, of a removable type).
+     */
+    private static boolean allEditable(int[] queue, int count, BitSet removable, boolean[] footprint, int size) {
+        for (int i = 0; i < count; i++) {
+            int index = queue[i];
+            if (removable != null && !removable.get(index)) return false;
+            if (!footprint[index % (size * size)]) return false;
+        }
+        return true;
+    }
+
+    private static BlockPos position(int index, int size, int minX, int minY, int minZ) {
+        int layer = size * size;
+        return new BlockPos(minX + index % size, minY + index / layer, minZ + (index / size) % size);
+    }
+
+    private static boolean isCover(BlockState state) {
+        Block block = state.getBlock();
+        return block == Blocks.SNOW || block == Blocks.POWDER_SNOW || IntelligentNaturalizeStrategy.isVegetation(state);
+    }
+}
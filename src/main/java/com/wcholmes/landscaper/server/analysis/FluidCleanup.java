@@ -0,0 +1,197 @@
+package com.wcholmes.landscaper.server.analysis;
+
+import com.wcholmes.landscaper.common.terrain.BufferedTerrainView;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.LiquidBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Water handling for a naturalize operation. Finds every connected water body that touches the
+ * footprint near its surface and decides per body:
+ * <ul>
+ *   <li>DRAIN - the body lies entirely inside the footprint (leftovers, puddles): remove it</li>
+ *   <li>KEEP - the body continues outside and the area is naturally watery: leave it alone</li>
+ *   <li>SEAL - the body continues outside into dry terrain: remove the part inside and wall off the
+ *       cells where outside fluid would flow back in</li>
+ * </ul>
+ * Bodies are flooded through the planned terrain, so they see every earlier pass. Lava is left alone.
+ */
+public class FluidCleanup {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int SCAN_BELOW = 2;            // Window around each column's surface to look for fluid
+    private static final int SCAN_ABOVE = 5;
+    private static final int MAX_BODY_BLOCKS = 4096;    // Flood limit; larger bodies are treated as open water
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private enum Decision {
+        DRAIN, KEEP, SEAL
+    }
+
+    /**
+     * @param footprint Columns the operation edits, indexed (z - minZ) * size + (x - minX) over the extent square
+     * @param stream Random stream id for seal block choices
+     * @return Number of blocks changed
+     */
+    public static int apply(BufferedTerrainView terrain, TerrainRandom random, int stream, TerrainProfile profile,
+                            HeightField heightField, boolean[] footprint, BlockPos center, int extent) {
+        Footprint area = new Footprint(footprint, center, extent);
+        // Body id (from 1) of every flooded cell
+        Long2IntOpenHashMap bodyIds = new Long2IntOpenHashMap();
+        int nextId = 1;
+        int[] bodies = new int[Decision.values().length];
+        int drained = 0;
+        int sealed = 0;
+
+        for (int z = area.minZ; z < area.minZ + area.size; z++) {
+            for (int x = area.minX; x < area.minX + area.size; x++) {
+                if (!area.contains(x, z)) continue;
+                int surfaceY = heightField.getHeight(x, z);
+                if (surfaceY == HeightField.NO_SURFACE) continue;
+
+                for (int y = surfaceY - SCAN_BELOW; y <= surfaceY + SCAN_ABOVE; y++) {
+                    long seed = BlockPos.asLong(x, y, z);
+                    if (bodyIds.containsKey(seed) || !isFluid(terrain.getBlockState(x, y, z))) continue;
+
+                    Body body = flood(terrain, area, seed, bodyIds, nextId++);
+                    Decision decision = decide(body, profile);
+                    bodies[decision.ordinal()]++;
+                    if (decision == Decision.KEEP) continue;
+
+                    // DRAIN and SEAL both empty the inside; SEAL then walls the inflow cells
+                    for (int i = 0; i < body.inside.size(); i++) {
+                        long packed = body.inside.getLong(i);
+                        BlockPos pos = BlockPos.of(packed);
+                        terrain.getChanges().markSettledFluid(pos);
+                        if (decision == Decision.SEAL && hasOutsideFluid(terrain, area, pos)) {
+                            random.at(stream, pos.getX(), pos.getZ());
+                            Block block = profile.getConsistencyAwareSubsurfaceBlock(random);
+                            terrain.setBlock(pos, block.defaultBlockState());
+                            sealed++;
+                        } else {
+                            terrain.setBlock(pos, Blocks.AIR.defaultBlockState());
+                            drained++;
+                        }
+                    }
+                }
+            }
+        }
+
+        LOGGER.info("Fluid cleanup - bodies drained: {}, sealed: {}, kept: {} - blocks drained: {}, sealed: {}",
+            bodies[Decision.DRAIN.ordinal()], bodies[Decision.SEAL.ordinal()], bodies[Decision.KEEP.ordinal()],
+            drained, sealed);
+        return drained + sealed;
+    }
+
+    private static Decision decide(Body body, TerrainProfile profile) {
+        if (!body.escapes) return Decision.DRAIN;
+        // Open water in a watery landscape belongs there; anything else must not flow back in
+        return profile.getWaterType() != TerrainProfile.WaterType.NONE ? Decision.KEEP : Decision.SEAL;
+    }
+
+    /**
+     * Breadth-first 6-connected flood through fluid blocks from {@code seed}, up to MAX_BODY_BLOCKS.
+     * Cells are recorded in {@code bodyIds} under {@code id}.
+     */
+    private static Body flood(BufferedTerrainView terrain, Footprint area, long seed, Long2IntOpenHashMap bodyIds, int id) {
+        Body body = new Body();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        bodyIds.put(seed, id);
+        queue.enqueue(seed);
+        int reached = 1;
+
+        while (!queue.isEmpty()) {
+            long packed = queue.dequeueLong();
+            int x = BlockPos.getX(packed);
+            int y = BlockPos.getY(packed);
+            int z = BlockPos.getZ(packed);
+            if (area.contains(x, z)) {
+                body.inside.add(packed);
+            } else {
+                body.escapes = true;
+            }
+
+            for (Direction direction : DIRECTIONS) {
+                int nx = x + direction.getStepX();
+                int ny = y + direction.getStepY();
+                int nz = z + direction.getStepZ();
+                long next = BlockPos.asLong(nx, ny, nz);
+                int owner = bodyIds.get(next);
+                if (owner == id) continue;
+                if (owner != 0) {
+                    // Rest of an earlier body cut off at the flood limit: same open water, same decision
+                    body.escapes = true;
+                    continue;
+                }
+                if (!isFluid(terrain.getBlockState(nx, ny, nz))) continue;
+                if (reached >= MAX_BODY_BLOCKS) {
+                    // Too big to be a leftover - whatever lies beyond is outside water
+                    body.escapes = true;
+                    continue;
+                }
+                bodyIds.put(next, id);
+                queue.enqueue(next);
+                reached++;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * True if fluid outside the footprint touches this cell - it would flow back in once drained.
+     */
+    private static boolean hasOutsideFluid(BufferedTerrainView terrain, Footprint area, BlockPos pos) {
+        for (Direction direction : DIRECTIONS) {
+            int x = pos.getX() + direction.getStepX();
+            int z = pos.getZ() + direction.getStepZ();
+            if (area.contains(x, z)) continue;
+            if (isFluid(terrain.getBlockState(x, pos.getY() + direction.getStepY(), z))) return true;
+        }
+        return false;
+    }
+
+    // Water blocks only (not waterlogged blocks, not lava)
+    private static boolean isFluid(BlockState state) {
+        return state.getBlock() instanceof LiquidBlock && state.getFluidState().is(FluidTags.WATER);
+    }
+
+    private static class Body {
+        final LongArrayList inside = new LongArrayList();
+        boolean escapes;
+    }
+
+    /**
+     * Footprint mask over the (2 * extent + 1)^2 square centred on the operation, by world X/Z.
+     */
+    private static class Footprint {
+        final boolean[] mask;
+        final int minX;
+        final int minZ;
+        final int size;
+
+        Footprint(boolean[] mask, BlockPos center, int extent) {
+            this.mask = mask;
+            this.minX = center.getX() - extent;
+            this.minZ = center.getZ() - extent;
+            this.size = extent * 2 + 1;
+        }
+
+        boolean contains(int x, int z) {
+            int dx = x - minX;
+            int dz = z - minZ;
+            return dx >= 0 && dz >= 0 && dx < size && dz < size && mask[dz * size + dx];
+        }
+    }
+}
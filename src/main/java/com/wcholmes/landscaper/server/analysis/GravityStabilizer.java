@@ -0,0 +1,73 @@
+package com.wcholmes.landscaper.server.analysis;
+
+import com.wcholmes.landscaper.common.terrain.BufferedTerrainView;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.FallingBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Final planning stage: makes sure no gravity block (sand, gravel, ...) is left over a gap once
+ * the plan is committed, so an operation never spawns falling-block entities.
+ *
+ * <p>Checks every planned gravity block, and every existing one sitting on a planned change,
+ * bottom-up against the planned terrain. An unsupported block is swapped for its stable variant:
+ * sandstone for sand, red sandstone for red sand, otherwise the profile's most common
+ * non-gravity subsurface block. Working bottom-up means only the lowest block of a loose stack
+ * is swapped - the rest are then supported by it.
+ */
+public class GravityStabilizer {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * @param terrain Planned terrain; substitutions are written through it
+     * @param changes The plan so far (read for candidates)
+     * @return Number of blocks substituted
+     */
+    public static int apply(BufferedTerrainView terrain, ChangeSet changes, TerrainProfile profile) {
+        // Candidates: planned gravity blocks, plus whatever sits on a planned change
+        LongOpenHashSet seen = new LongOpenHashSet();
+        LongArrayList candidates = new LongArrayList();
+        changes.forEach((pos, state) -> {
+            if (state.getBlock() instanceof FallingBlock && seen.add(pos.asLong())) {
+                candidates.add(pos.asLong());
+            }
+            BlockPos above = pos.above();
+            if (terrain.getBlockState(above).getBlock() instanceof FallingBlock && seen.add(above.asLong())) {
+                candidates.add(above.asLong());
+            }
+        });
+        if (candidates.isEmpty()) return 0;
+
+        // Bottom-up, so a swapped block is already in place when the blocks above it are checked
+        candidates.sort((a, b) -> Integer.compare(BlockPos.getY(a), BlockPos.getY(b)));
+
+        Block stable = profile.getStableSubsurfaceBlock();
+        int substituted = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            BlockPos pos = BlockPos.of(candidates.getLong(i));
+            BlockState state = terrain.getBlockState(pos);
+            if (!(state.getBlock() instanceof FallingBlock)) continue;
+            if (!FallingBlock.isFree(terrain.getBlockState(pos.below()))) continue;
+
+            terrain.setBlock(pos, stableVariant(state.getBlock(), stable).defaultBlockState());
+            substituted++;
+        }
+
+        LOGGER.info("Gravity stabilization - checked: {}, substituted: {}", candidates.size(), substituted);
+        return substituted;
+    }
+
+    private static Block stableVariant(Block block, Block fallback) {
+        if (block == Blocks.SAND) return Blocks.SANDSTONE;
+        if (block == Blocks.RED_SAND) return Blocks.RED_SANDSTONE;
+        return fallback;
+    }
+}
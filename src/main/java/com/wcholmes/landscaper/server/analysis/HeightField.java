@@ -0,0 +1,164 @@
+package com.wcholmes.landscaper.server.analysis;
+
+import com.wcholmes.landscaper.common.terrain.TerrainView;
+import com.wcholmes.landscaper.common.util.TerrainUtils;
+import net.minecraft.core.BlockPos;
+
+/**
+ * Surface heights on a regular lattice of columns, read once, plus the derivative maps the
+ * analysis and naturalize passes need: slope and terrain-feature class (peak, valley, steep).
+ *
+ * <p>Lookups take world X/Z; columns off the lattice or without a surface read as {@link #NO_SURFACE}.
+ */
+public class HeightField {
+    public static final int NO_SURFACE = TerrainUtils.NO_SURFACE;
+    public static final int FEATURE_REACH = 5;      // Feature classification looks 5 blocks out
+
+    public enum Feature {
+        NONE, PEAK, VALLEY, STEEP
+    }
+
+    private static final Feature[] FEATURES = Feature.values();
+    private static final int MAX_SLOPE_STEPS = 4;   // Lattice steps to look for a neighbour with a surface
+    private static final int FEATURE_STEP = 2;      // ...every 2nd block
+
+    private final int minX;
+    private final int minZ;
+    private final int size;
+    private final int spacing;
+    private final int[] heights;
+    private final byte[] features; // Feature ordinal + 1, 0 = not classified yet
+
+    /**
+     * @param minX World X of lattice column 0
+     * @param minZ World Z of lattice row 0
+     * @param size Columns per side
+     * @param spacing Blocks between lattice columns
+     * @param heights Surface Y per column (row-major, index = z * size + x), NO_SURFACE where unknown
+     */
+    public HeightField(int minX, int minZ, int size, int spacing, int[] heights) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.size = size;
+        this.spacing = spacing;
+        this.heights = heights;
+        this.features = new byte[heights.length];
+    }
+
+    /**
+     * Find the surface of every column within {@code extent} of {@code center}, one search per column,
+     * in chunk-major order. Each search starts from an already found neighbour's surface (the
+     * center's Y until there is one), so slopes are followed past the reach of a fixed start height.
+     */
+    public static HeightField capture(TerrainView terrain, BlockPos center, int extent) {
+        int size = extent * 2 + 1;
+        int[] heights = new int[size * size];
+
+        int minX = center.getX() - extent;
+        int minZ = center.getZ() - extent;
+        int maxX = minX + size - 1;
+        int maxZ = minZ + size - 1;
+
+        // Chunk by chunk, so consecutive searches stay within one chunk's sections
+        for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+            for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                for (int z = Math.max(minZ, chunkZ << 4); z <= Math.min(maxZ, (chunkZ << 4) + 15); z++) {
+                    for (int x = Math.max(minX, chunkX << 4); x <= Math.min(maxX, (chunkX << 4) + 15); x++) {
+                        int index = (z - minZ) * size + (x - minX);
+                        // West neighbour, else north: both come earlier in chunk-major order
+                        int nearY = x > minX ? heights[index - 1] : NO_SURFACE;
+                        if (nearY == NO_SURFACE && z > minZ) nearY = heights[index - size];
+                        if (nearY == NO_SURFACE) nearY = center.getY();
+                        heights[index] = TerrainUtils.findSurfaceYNear(terrain, x, nearY, z);
+                    }
+                }
+            }
+        }
+        return new HeightField(minX, minZ, size, 1, heights);
+    }
+
+    private int index(int x, int z) {
+        int dx = x - minX;
+        int dz = z - minZ;
+        if (dx < 0 || dz < 0 || dx % spacing != 0 || dz % spacing != 0) return -1;
+        dx /= spacing;
+        dz /= spacing;
+        if (dx >= size || dz >= size) return -1;
+        return dz * size + dx;
+    }
+
+    public int getHeight(int x, int z) {
+        int index = index(x, z);
+        return index < 0 ? NO_SURFACE : heights[index];
+    }
+
+    /**
+     * Average height change per block towards the nearest lattice neighbour with a surface
+     * on each of the four sides. 0 when no neighbour has one.
+     */
+    public double getSlope(int x, int z) {
+        int y = getHeight(x, z);
+        if (y == NO_SURFACE) return 0.0;
+
+        double totalSlope = 0;
+        int count = 0;
+        for (int side = 0; side < 4; side++) {
+            int stepX = side == 0 ? spacing : side == 1 ? -spacing : 0;
+            int stepZ = side == 2 ? spacing : side == 3 ? -spacing : 0;
+            for (int step = 1; step <= MAX_SLOPE_STEPS; step++) {
+                int neighborY = getHeight(x + stepX * step, z + stepZ * step);
+                if (neighborY != NO_SURFACE) {
+                    totalSlope += Math.abs(neighborY - y) / (double) (step * spacing);
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count > 0 ? totalSlope / count : 0.0;
+    }
+
+    /**
+     * Classify a column against its neighbourhood (every 2nd block within 5 blocks):
+     * a peak if over half the neighbours are lower, a valley if over half are higher,
+     * steep if over 30% are each higher and lower. Memoized per column.
+     */
+    public Feature getFeature(int x, int z) {
+        int index = index(x, z);
+        if (index < 0 || heights[index] == NO_SURFACE) return Feature.NONE;
+        if (features[index] == 0) {
+            features[index] = (byte) (classify(x, z, heights[index]).ordinal() + 1);
+        }
+        return FEATURES[features[index] - 1];
+    }
+
+    public boolean isFeature(int x, int z) {
+        return getFeature(x, z) != Feature.NONE;
+    }
+
+    private Feature classify(int x, int z, int y) {
+        int higherCount = 0;
+        int lowerCount = 0;
+        int totalChecked = 0;
+
+        for (int dx = -FEATURE_REACH; dx <= FEATURE_REACH; dx += FEATURE_STEP) {
+            for (int dz = -FEATURE_REACH; dz <= FEATURE_REACH; dz += FEATURE_STEP) {
+                int neighborY = getHeight(x + dx, z + dz);
+                if (neighborY == NO_SURFACE) continue;
+
+                if (neighborY > y) higherCount++;
+                if (neighborY < y) lowerCount++;
+                totalChecked++;
+            }
+        }
+
+        if (totalChecked == 0) return Feature.NONE;
+
+        double higherRatio = (double) higherCount / totalChecked;
+        double lowerRatio = (double) lowerCount / totalChecked;
+
+        if (lowerRatio > 0.5) return Feature.PEAK;
+        if (higherRatio > 0.5) return Feature.VALLEY;
+        if (higherRatio > 0.3 && lowerRatio > 0.3) return Feature.STEEP;
+        return Feature.NONE;
+    }
+}
@@ -1,22 +1,39 @@
 package com.wcholmes.landscaper.server.analysis;
 
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
 import com.wcholmes.landscaper.common.config.PlayerConfig;
 import com.wcholmes.landscaper.common.item.NaturalizationMode;
+import com.wcholmes.landscaper.common.terrain.BufferedTerrainView;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.terrain.ColumnTerrainView;
+import com.wcholmes.landscaper.common.terrain.DeferredUpdates;
+import com.wcholmes.landscaper.common.terrain.LevelTerrainView;
+import com.wcholmes.landscaper.common.terrain.SurfaceIndex;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
+import com.wcholmes.landscaper.common.util.GradientNoise;
+import com.wcholmes.landscaper.common.util.DistanceField;
+import com.wcholmes.landscaper.common.util.MessyEdge;
+import com.wcholmes.landscaper.common.util.PackedPositions;
+import com.wcholmes.landscaper.common.util.Shape;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
 import com.wcholmes.landscaper.common.util.TerrainUtils;
+import com.wcholmes.landscaper.server.ClientSync;
+import com.wcholmes.landscaper.server.DropSuppression;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.AABB;
+import net.minecraft.world.level.chunk.LevelChunk;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -28,6 +45,24 @@ import org.apache.logging.log4j.Logger;
 public class IntelligentNaturalizeStrategy {
     private static final Logger LOGGER = LogManager.getLogger();
 
+    // Independent random streams per pass (see TerrainRandom.at)
+    private static final int STREAM_TERRAIN = 1;
+    private static final int STREAM_VEGETATION = 2;
+    private static final int STREAM_OVERHANG = 3;
+    private static final int STREAM_FLUID = 4;
+
+    // Height variation noise - fixed seed so neighbouring operations line up like one landscape
+    private static final long HEIGHT_NOISE_SEED = 0x4C616E64L;
+    private static final double HEIGHT_NOISE_FREQUENCY = 0.05; // ~20-block undulations
+    private static final int DEFAULT_EROSION_STRENGTH = 3;
+
+    // Fused column window around the column's captured surface: height changes and the follow-up surface
+    // searches plus the furthest any pass reads past a surface (5 below for subsurface layers, 5 above), with margin
+    private static final int COLUMN_BELOW = 30;
+    private static final int COLUMN_ABOVE = 18;
+
+    private static final Map<Block, Boolean> VEGETATION = new ConcurrentHashMap<>();
+
     /**
      * Apply intelligent naturalization based on analyzed terrain profile.
      *
@@ -41,9 +76,89 @@ public class IntelligentNaturalizeStrategy {
      */
     public static int apply(Level level, BlockPos center, int radius, TerrainProfile profile,
                            boolean circleShape, int messyEdge) {
+        return apply(level, new ChangeSet(), new TerrainRandom(level.getRandom().nextLong()),
+            center, radius, profile, circleShape, messyEdge);
+    }
+
+    /**
+     * Plan against the live level, then commit the planned writes.
+     *
+     * @param changes Receives every planned write (for recording/undo), committed in order
+     * @param random Operation RNG - the same seed plans the same writes
+     * @return Number of blocks modified
+     */
+    public static int apply(Level level, ChangeSet changes, TerrainRandom random, BlockPos center, int radius,
+                           TerrainProfile profile, boolean circleShape, int messyEdge) {
+        TerrainView terrain = new LevelTerrainView(level);
+        int blocksChanged = plan(terrain, changes, random, center, radius, profile, circleShape, messyEdge);
+        if (changes.isEmpty()) return blocksChanged;
+
+        // Pass 6: Item drops the commit causes (plants losing support, ...) never spawn
+        DropSuppression.open(level, changes);
+        boolean deferred = NaturalizationConfig.isDeferredUpdates();
+        int flags = deferred ? DeferredUpdates.BULK_FLAGS : 3;
+        if (level instanceof ServerLevel serverLevel) {
+            // Client updates coalesced per section, dense chunks resent whole
+            ClientSync.commit(serverLevel, changes, flags);
+            if (deferred) DeferredUpdates.settle(level, changes);
+            // Bulk flags send no neighbour notifications, so the surface index hears about the commit here
+            SurfaceIndex.update(level, changes);
+
+            // Drop the fluid ticks the commit scheduled in the bodies the plan drained or sealed; letting
+            // those run would only start water flowing back in over the following ticks. Kept water keeps its ticks.
+            clearFluidTicks(serverLevel, changes);
+        } else {
+            changes.commit(level, flags);
+            if (deferred) DeferredUpdates.settle(level, changes);
+        }
+
+        LOGGER.info("Naturalization complete! Total blocks changed: {}", blocksChanged);
+
+        return blocksChanged;
+    }
+
+    /**
+     * Remove the scheduled fluid ticks on the cells fluid cleanup drained or sealed. Ticks anywhere else,
+     * including those settling just scheduled on kept water next to the edit, are left to run.
+     */
+    private static void clearFluidTicks(ServerLevel level, ChangeSet changes) {
+        LongSet settled = changes.getSettledFluid();
+        if (settled.isEmpty()) return;
+
+        LongOpenHashSet chunks = new LongOpenHashSet();
+        for (long packed : settled) {
+            chunks.add(ChunkPos.asLong(BlockPos.getX(packed) >> 4, BlockPos.getZ(packed) >> 4));
+        }
+        for (long chunkPos : chunks) {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+            if (chunk != null) chunk.getFluidTicks().removeIf(tick -> settled.contains(tick.pos().asLong()));
+        }
+    }
+
+    /**
+     * Run passes 1-5 against a terrain view without touching the world. Later passes read
+     * the writes of earlier ones through a {@link BufferedTerrainView}.
+     *
+     * <p>With {@link NaturalizationConfig#isFusedPasses()} every column runs passes 1-3.5 in one
+     * sweep over a locally buffered window ({@link ColumnTerrainView}); otherwise each pass sweeps
+     * the whole footprint in turn. Fluid cleanup and floating terrain repair work on whole
+     * bodies, so they run afterwards in both modes, followed by gravity-block stabilization.
+     *
+     * @param view Terrain to read (live level, snapshot or replay capture)
+     * @param changes Receives the planned writes
+     * @param random Operation RNG; every column draws from its own stream so results don't depend on order
+     * @return Number of blocks modified
+     */
+    public static int plan(TerrainView view, ChangeSet changes, TerrainRandom random, BlockPos center, int radius,
+                          TerrainProfile profile, boolean circleShape, int messyEdge) {
+        boolean fused = NaturalizationConfig.isFusedPasses();
+
+        // All reads see earlier passes' writes; nothing reaches the world until commit
+        ColumnTerrainView column = fused ? new ColumnTerrainView(view, changes) : null;
+        BufferedTerrainView terrain = fused ? column : new BufferedTerrainView(view, changes);
 
         // Find actual surface
-        BlockPos surface = TerrainUtils.findSurface(level, center);
+        BlockPos surface = terrain.findSurface(center);
         if (surface == null) return 0;
 
         // Log water type for debugging
@@ -57,21 +172,137 @@ public class IntelligentNaturalizeStrategy {
         LOGGER.info("  Dominant block: {}", profile.getDominantSurfaceBlock().getName().getString());
 
         // Get positions to modify
-        List<BlockPos> positions = circleShape ?
-            getCirclePositions(surface, radius, messyEdge) :
-            getSquarePositions(surface, radius, messyEdge);
+        int extent = radius + messyEdge;
+        // Shape at the radius with a frayed outline out to the extent (same mask as any preview)
+        Shape.Mask shape = MessyEdge.mask(Shape.of(circleShape), surface, radius, messyEdge);
+        PackedPositions positions = shape.place(surface);
+
+        // Height offsets for every column, evaluated up front in one pass over the footprint
+        double[] heightOffsets = calculateHeightOffsets(surface, extent, profile);
+
+        // Surface heights for the footprint plus the feature neighbourhood, searched once per column.
+        // Every pass works from these: pass 1 clears above them without moving them, pass 2 reshapes
+        // them, and later passes find the reshaped surface with a search seeded from them.
+        HeightField heightField = HeightField.capture(terrain, surface, extent + HeightField.FEATURE_REACH);
+
+        // Distance of every footprint column from the edge, for blending into the surroundings
+        boolean[] footprint = shape.toArray();
+        float[] edgeDistance = DistanceField.distanceToOutside(footprint, extent * 2 + 1);
+
+        ColumnPasses passes = new ColumnPasses(terrain, random, profile, heightField, heightOffsets, edgeDistance,
+            surface, extent);
+        boolean vegetation = profile.getVegetationDensity() > 0;
+        boolean snow = profile.hasSnow();
 
         int blocksChanged = 0;
 
-        // Pass 1: Clear vegetation AND WATER (preserve snow only!)
-        for (BlockPos pos : positions) {
-            BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
-            if (surfacePos == null) continue;
+        if (fused) {
+            // One sweep: each column is read once, runs every pass in memory, then emits its net changes
+            for (int i = 0; i < positions.size(); i++) {
+                int x = positions.getX(i);
+                int z = positions.getZ(i);
+                int y = heightField.getHeight(x, z);
+                if (y == HeightField.NO_SURFACE) y = positions.getY(i);
+                column.load(x, z, y - COLUMN_BELOW, y + COLUMN_ABOVE);
+                passes.clear(x, z);
+                blocksChanged += passes.reshape(x, z);
+                if (vegetation) blocksChanged += passes.vegetate(x, z);
+                if (snow) blocksChanged += passes.snow(x, z);
+                column.flush();
+            }
+            LOGGER.info("Fused passes complete - positions processed: {}", positions.size());
+        } else {
+            // Pass 1: Clear vegetation (preserve snow!)
+            for (int i = 0; i < positions.size(); i++) {
+                passes.clear(positions.getX(i), positions.getZ(i));
+            }
+
+            // Pass 2: Apply terrain blocks using profile data (preserve features, match consistency)
+            for (int i = 0; i < positions.size(); i++) {
+                blocksChanged += passes.reshape(positions.getX(i), positions.getZ(i));
+            }
+
+            // Pass 3: Add vegetation based on profile (skip if at/above snow elevation)
+            if (vegetation) {
+                for (int i = 0; i < positions.size(); i++) {
+                    blocksChanged += passes.vegetate(positions.getX(i), positions.getZ(i));
+                }
+            }
+
+            // Pass 3.5: Apply snow layers at appropriate elevations
+            if (snow) {
+                for (int i = 0; i < positions.size(); i++) {
+                    blocksChanged += passes.snow(positions.getX(i), positions.getZ(i));
+                }
+            }
+
+            LOGGER.info("Pass 3 complete (vegetation) - positions processed: {}", positions.size());
+        }
+
+        // Pass 5: Drain, seal or keep each fluid body touching the footprint (whole bodies, not columns)
+        int fluidChanged = FluidCleanup.apply(terrain, random, STREAM_FLUID, profile, heightField,
+            footprint, surface, extent);
+        blocksChanged += fluidChanged;
+        LOGGER.info("Pass 5 complete (fluid cleanup) - changed: {}", fluidChanged);
 
-            // Clear vegetation and WATER above surface (EXCEPT snow)
-            for (int y = 0; y <= 3; y++) {
-                BlockPos clearPos = surfacePos.above(y);
-                BlockState state = level.getBlockState(clearPos);
+        // Pass 4: Repair floating terrain and sealed air pockets over the whole edited volume.
+        // Runs last so it sees the final shape, including drained fluid.
+        int repaired = FloatingTerrainRepair.repair(terrain, random, STREAM_OVERHANG, profile, heightField,
+            footprint, surface, extent);
+        blocksChanged += repaired;
+        LOGGER.info("Pass 4 complete (floating terrain repair) - changed: {}", repaired);
+
+        // Last: nothing that falls may be left over a gap (no falling-block entities after commit)
+        blocksChanged += GravityStabilizer.apply(terrain, changes, profile);
+
+        return blocksChanged;
+    }
+
+    /**
+     * Per-column bodies of passes 1-3.5. Each touches only its own column (neighbours are only read),
+     * so the same code runs pass-by-pass or fused per column. Columns are passed as coordinates and
+     * writes go through one reused cursor, so the passes allocate no positions.
+     */
+    private static class ColumnPasses {
+        private final BufferedTerrainView terrain;
+        private final TerrainRandom random;
+        private final TerrainProfile profile;
+        private final HeightField heightField;
+        private final double[] heightOffsets;
+        private final float[] edgeDistance;
+        private final int blendWidth;
+        private final BlockPos center;
+        private final int extent;
+        private final int gridSize;
+        private final double adjustedDensity;
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();   // Write position, reused
+
+        ColumnPasses(BufferedTerrainView terrain, TerrainRandom random, TerrainProfile profile, HeightField heightField,
+                     double[] heightOffsets, float[] edgeDistance, BlockPos center, int extent) {
+            this.terrain = terrain;
+            this.random = random;
+            this.profile = profile;
+            this.heightField = heightField;
+            this.heightOffsets = heightOffsets;
+            this.edgeDistance = edgeDistance;
+            this.blendWidth = NaturalizationConfig.getEdgeBlendWidth();
+            this.center = center;
+            this.extent = extent;
+            this.gridSize = extent * 2 + 1;
+            // Reduce density by 50% to prevent overload
+            this.adjustedDensity = profile.getVegetationDensity() * 0.5;
+        }
+
+        /**
+         * Pass 1: Clear vegetation above the surface (preserve snow!). Water plants become water;
+         * the fluid stage decides what happens to the water itself.
+         */
+        void clear(int x, int z) {
+            int surfaceY = heightField.getHeight(x, z);
+            if (surfaceY == HeightField.NO_SURFACE) return;
+
+            for (int dy = 0; dy <= 3; dy++) {
+                BlockState state = terrain.getBlockState(x, surfaceY + dy, z);
                 Block block = state.getBlock();
 
                 // Don't remove snow layers!
@@ -79,267 +310,185 @@ public class IntelligentNaturalizeStrategy {
                     continue;
                 }
 
-                // REMOVE water and vegetation
-                if (block == Blocks.WATER || (!state.isAir() && isVegetation(state))) {
-                    level.setBlock(clearPos, Blocks.AIR.defaultBlockState(), 3);
+                // REMOVE vegetation
+                if (!state.isAir() && isVegetation(state)) {
+                    boolean waterPlant = block == Blocks.SEAGRASS || block == Blocks.KELP;
+                    terrain.setBlock(cursor.set(x, surfaceY + dy, z),
+                        (waterPlant ? Blocks.WATER : Blocks.AIR).defaultBlockState());
                 }
             }
         }
 
-        // Pass 2: Apply terrain blocks using profile data (preserve features, match consistency)
-        for (BlockPos pos : positions) {
-            BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
-            if (surfacePos == null) continue;
+        /**
+         * Pass 2: Apply terrain blocks using profile data (preserve features, match consistency)
+         */
+        int reshape(int x, int z) {
+            int currentY = heightField.getHeight(x, z);
+            if (currentY == HeightField.NO_SURFACE) return 0;
+            random.at(STREAM_TERRAIN, x, z);
+            int blocksChanged = 0;
+
+            int gridIndex = (z - center.getZ() + extent) * gridSize + (x - center.getX() + extent);
 
-            int currentY = surfacePos.getY();
+            // EDGE BLEND: fade from the surroundings (edge) to the full effect (band width inside).
+            // Columns in the band keep their own blocks, and their height, with the remaining probability.
+            double blend = blendWidth > 0 ? Math.min(1.0, edgeDistance[gridIndex] / (blendWidth + 1)) : 1.0;
+            boolean keepBlocks = blend < 1.0 && random.nextDouble() >= blend;
+            Block originalSurface = terrain.getBlockState(x, currentY, z).getBlock();
 
-            // PRESERVE TERRAIN FEATURES: Check local elevation variation
-            boolean isSignificantFeature = isTerrainFeature(level, surfacePos, profile);
+            // PRESERVE TERRAIN FEATURES: Check local elevation variation (against pre-pass-2 heights)
+            boolean isSignificantFeature = heightField.isFeature(x, z);
 
             if (isSignificantFeature || profile.isVeryHomogeneous()) {
                 // Preserve elevation if:
                 // - This is a hill/mountain/feature, OR
                 // - Area is very homogeneous (>95% one block) - keep it flat/stable
                 // Only replace surface block to match dominant type (with bilateral blend)
-                Block proposed = profile.getConsistencyAwareSurfaceBlock();
-                Block filtered = BilateralBlockFilter.filterBlock(level, surfacePos, proposed);
-                level.setBlock(surfacePos, filtered.defaultBlockState(), 3);
-                blocksChanged++;
-                continue; // NO height modification
+                if (keepBlocks) return 0;
+                Block proposed = profile.getConsistencyAwareSurfaceBlock(random);
+                Block filtered = BilateralBlockFilter.filterBlock(terrain, x, currentY, z, proposed);
+                terrain.setBlock(cursor.set(x, currentY, z), filtered.defaultBlockState());
+                return 1; // NO height modification
             }
 
             // Calculate target height based on profile's height distribution and smoothness
-            int targetY = calculateTargetHeight(pos, surface, profile);
+            int targetY = (int) (profile.getAverageY() + heightOffsets[gridIndex]);
             int heightDiff = targetY - currentY;
 
             // Limit height changes to prevent aggressive modification (max ±1 block for safety)
             heightDiff = Math.max(-1, Math.min(1, heightDiff));
 
+            // Near the edge the step itself is blended: taken with probability blend, so on average
+            // the column moves blend blocks towards the target
+            if (blend < 1.0 && random.nextDouble() >= blend) heightDiff = 0;
+
             // Apply height changes with profile-based blocks
             if (heightDiff > 0) {
                 // Build up using CONSISTENCY-AWARE subsurface blocks
-                for (int y = 0; y < heightDiff; y++) {
-                    Block block = profile.getConsistencyAwareSubsurfaceBlock();
-                    level.setBlock(surfacePos.above(y + 1), block.defaultBlockState(), 3);
+                for (int dy = 0; dy < heightDiff; dy++) {
+                    Block block = profile.getConsistencyAwareSubsurfaceBlock(random);
+                    terrain.setBlock(cursor.set(x, currentY + dy + 1, z), block.defaultBlockState());
                     blocksChanged++;
                 }
             } else if (heightDiff < 0) {
                 // Dig down (limited)
-                for (int y = 0; y < Math.abs(heightDiff); y++) {
-                    level.setBlock(surfacePos.above(y), Blocks.AIR.defaultBlockState(), 3);
+                for (int dy = 0; dy < -heightDiff; dy++) {
+                    terrain.setBlock(cursor.set(x, currentY - dy, z), Blocks.AIR.defaultBlockState());
                     blocksChanged++;
                 }
             }
 
-            // Place new surface based on sampled area
-            BlockPos newSurface = surfacePos.above(Math.max(0, heightDiff));
+            // Place new surface based on sampled area (on the block below a dug one)
+            int newSurfaceY = currentY + heightDiff;
 
             // SURFACE LAYER - Use bilateral filter for smooth blending
-            Block proposedSurface = profile.getConsistencyAwareSurfaceBlock();
-            Block filteredSurface = BilateralBlockFilter.filterBlock(level, newSurface, proposedSurface);
-            level.setBlock(newSurface, filteredSurface.defaultBlockState(), 3);
+            if (keepBlocks) {
+                // Blended column: eased height only, with the original surface block on top
+                if (heightDiff != 0) {
+                    terrain.setBlock(cursor.set(x, newSurfaceY, z), originalSurface.defaultBlockState());
+                }
+                return blocksChanged;
+            }
+            Block proposedSurface = profile.getConsistencyAwareSurfaceBlock(random);
+            Block filteredSurface = BilateralBlockFilter.filterBlock(terrain, x, newSurfaceY, z, proposedSurface);
+            terrain.setBlock(cursor.set(x, newSurfaceY, z), filteredSurface.defaultBlockState());
             blocksChanged++;
 
             // SUBSURFACE LAYERS - Use CONSISTENCY-AWARE subsurface (stone mountains stay stone!)
-            for (int y = 1; y <= 5; y++) {
-                Block block = profile.getConsistencyAwareSubsurfaceBlock();
-                level.setBlock(newSurface.below(y), block.defaultBlockState(), 3);
+            for (int dy = 1; dy <= 5; dy++) {
+                Block block = profile.getConsistencyAwareSubsurfaceBlock(random);
+                terrain.setBlock(cursor.set(x, newSurfaceY - dy, z), block.defaultBlockState());
                 blocksChanged++;
             }
+            return blocksChanged;
         }
 
-        // Pass 3: Add vegetation based on profile (skip if at/above snow elevation)
-        if (profile.getVegetationDensity() > 0) {
-            // Reduce density by 50% to prevent overload
-            double adjustedDensity = profile.getVegetationDensity() * 0.5;
-
-            for (BlockPos pos : positions) {
-                BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
-                if (surfacePos == null) continue;
-
-                // Don't place vegetation above snow line
-                if (profile.hasSnow() && surfacePos.getY() >= profile.getSnowElevationThreshold()) {
-                    continue;
-                }
+        /**
+         * Surface after pass 2, found from the captured surface it was reshaped from.
+         */
+        private int reshapedSurfaceY(int x, int z) {
+            int capturedY = heightField.getHeight(x, z);
+            if (capturedY == HeightField.NO_SURFACE) return TerrainUtils.NO_SURFACE;
+            return TerrainUtils.findSurfaceYNear(terrain, x, capturedY, z);
+        }
 
-                // Apply vegetation with REDUCED density (50% of sample)
-                if (ThreadLocalRandom.current().nextDouble() < adjustedDensity) {
-                    Block vegBlock = profile.getWeightedRandomVegetation();
-                    if (vegBlock != null) {
-                        BlockState surfaceState = level.getBlockState(surfacePos);
-                        if (canSupportVegetation(surfaceState)) {
-                            level.setBlock(surfacePos.above(), vegBlock.defaultBlockState(), 3);
-                            blocksChanged++;
-                        }
-                    }
-                }
+        /**
+         * Pass 3: Add vegetation based on profile (skip if at/above snow elevation)
+         */
+        int vegetate(int x, int z) {
+            int surfaceY = reshapedSurfaceY(x, z);
+            if (surfaceY == TerrainUtils.NO_SURFACE) return 0;
+            random.at(STREAM_VEGETATION, x, z);
+
+            // Don't place vegetation above snow line
+            if (profile.hasSnow() && surfaceY >= profile.getSnowElevationThreshold()) {
+                return 0;
             }
-        }
 
-        // Pass 3.5: Apply snow layers at appropriate elevations
-        if (profile.hasSnow()) {
-            for (BlockPos pos : positions) {
-                BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
-                if (surfacePos == null) continue;
-
-                // Apply snow if at or above snow threshold
-                if (surfacePos.getY() >= profile.getSnowElevationThreshold()) {
-                    BlockPos snowPos = surfacePos.above();
-                    BlockState aboveState = level.getBlockState(snowPos);
-
-                    // Only place on solid blocks, don't replace existing snow
-                    if (aboveState.isAir()) {
-                        level.setBlock(snowPos, Blocks.SNOW.defaultBlockState(), 3);
-                        blocksChanged++;
+            // Apply vegetation with REDUCED density (50% of sample)
+            if (random.nextDouble() < adjustedDensity) {
+                Block vegBlock = profile.getWeightedRandomVegetation(random);
+                if (vegBlock != null) {
+                    BlockState surfaceState = terrain.getBlockState(x, surfaceY, z);
+                    // Kept water stays water
+                    if (canSupportVegetation(surfaceState) && terrain.getBlockState(x, surfaceY + 1, z).isAir()) {
+                        terrain.setBlock(cursor.set(x, surfaceY + 1, z), vegBlock.defaultBlockState());
+                        return 1;
                     }
                 }
             }
+            return 0;
         }
 
-        LOGGER.info("Pass 3 complete (vegetation) - positions processed: {}", positions.size());
-
-        // Pass 4: Repair overhangs (fill floating blocks with support)
-        int overhangsFilled = repairOverhangs(level, positions, profile);
-        blocksChanged += overhangsFilled;
-        LOGGER.info("Pass 4 complete (overhang repair) - filled: {}", overhangsFilled);
-
-        // WATER SYSTEM REMOVED - was causing edge issues
-        // No water placement
-
-        // Pass 5: AGGRESSIVE water removal (final cleanup)
-        int waterRemoved = 0;
-        for (BlockPos pos : positions) {
-            // Check surface and above for any water
-            for (int y = -2; y <= 5; y++) {
-                BlockPos checkPos = pos.offset(0, y, 0);
-                BlockState state = level.getBlockState(checkPos);
-
-                if (state.getBlock() == Blocks.WATER) {
-                    // DESTROY all water in modified area
-                    level.setBlock(checkPos, Blocks.AIR.defaultBlockState(), 3);
-                    waterRemoved++;
+        /**
+         * Pass 3.5: Apply snow layers at appropriate elevations
+         */
+        int snow(int x, int z) {
+            int surfaceY = reshapedSurfaceY(x, z);
+            if (surfaceY == TerrainUtils.NO_SURFACE) return 0;
+
+            // Apply snow if at or above snow threshold
+            if (surfaceY >= profile.getSnowElevationThreshold()) {
+                // Only place on solid blocks, don't replace existing snow
+                if (terrain.getBlockState(x, surfaceY + 1, z).isAir()) {
+                    terrain.setBlock(cursor.set(x, surfaceY + 1, z), Blocks.SNOW.defaultBlockState());
+                    return 1;
                 }
             }
+            return 0;
         }
-        LOGGER.info("Pass 5 complete (water removal) - removed: {}", waterRemoved);
-        if (waterRemoved > 0) {
-            LOGGER.warn("⚠️  Removed {} water blocks in final cleanup!", waterRemoved);
-        }
-
-        // Pass 6: Clean up item drops
-        AABB bounds = new AABB(surface).inflate(radius + messyEdge);
-        level.getEntitiesOfClass(ItemEntity.class, bounds).forEach(ItemEntity::discard);
-
-        LOGGER.info("Naturalization complete! Total blocks changed: {}", blocksChanged);
-
-        return blocksChanged;
     }
 
     /**
-     * Calculate target height for a position based on profile characteristics
+     * Target-height offsets from the profile's average for a (2 * extent + 1)^2 grid centred on the surface.
+     * Smoother terrain = less variation; erosion strength scales the swing and roughness adds finer octaves.
      */
-    private static int calculateTargetHeight(BlockPos pos, BlockPos center, TerrainProfile profile) {
-        // Distance from center (for natural variation)
-        double distance = Math.sqrt(pos.distSqr(center));
+    private static double[] calculateHeightOffsets(BlockPos center, int extent, TerrainProfile profile) {
+        int size = extent * 2 + 1;
+        double[] offsets = new double[size * size];
 
-        // Use profile's average height as base
-        int baseHeight = profile.getAverageY();
+        double roughness = NaturalizationConfig.getRoughnessAmount();
+        int octaves = 1 + (int) Math.ceil(Math.min(roughness, 3.0));   // 0 = one smooth octave, default 1.5 = 3
+        double persistence = Math.min(0.85, 0.35 + roughness * 0.1);  // Default 1.5 = 0.5
+        GradientNoise.fill(HEIGHT_NOISE_SEED, center.getX() - extent, center.getZ() - extent, size, size,
+            HEIGHT_NOISE_FREQUENCY, octaves, persistence, offsets);
 
-        // Add variation based on profile's smoothness
-        // Smoother terrain = less variation, rougher = more variation
+        // Default erosion keeps the old sin + cos swing of twice the variation amount
         double variationAmount = (1.0 - profile.getSmoothness()) * profile.getHeightRange() * 0.3;
-
-        // Simple noise-like variation (could use Perlin noise for better results)
-        double variation = (Math.sin(pos.getX() * 0.1) + Math.cos(pos.getZ() * 0.1)) * variationAmount;
-
-        return (int) (baseHeight + variation);
-    }
-
-    /**
-     * Get circle-shaped positions
-     */
-    private static List<BlockPos> getCirclePositions(BlockPos center, int radius, int messyEdge) {
-        List<BlockPos> positions = new ArrayList<>();
-        int totalRadius = radius + messyEdge;
-
-        for (int x = -totalRadius; x <= totalRadius; x++) {
-            for (int z = -totalRadius; z <= totalRadius; z++) {
-                double distance = Math.sqrt(x * x + z * z);
-                if (distance <= totalRadius) {
-                    positions.add(center.offset(x, 0, z));
-                }
-            }
-        }
-
-        return positions;
-    }
-
-    /**
-     * Get square-shaped positions
-     */
-    private static List<BlockPos> getSquarePositions(BlockPos center, int radius, int messyEdge) {
-        List<BlockPos> positions = new ArrayList<>();
-        int totalRadius = radius + messyEdge;
-
-        for (int x = -totalRadius; x <= totalRadius; x++) {
-            for (int z = -totalRadius; z <= totalRadius; z++) {
-                positions.add(center.offset(x, 0, z));
-            }
+        double amplitude = 2.0 * variationAmount * NaturalizationConfig.getErosionStrength() / DEFAULT_EROSION_STRENGTH;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] *= amplitude;
         }
-
-        return positions;
+        return offsets;
     }
 
-    /**
-     * Detect terrain features (hills, peaks) using LOCAL elevation variation
-     * Better than global average - works on mountains too
-     */
-    private static boolean isTerrainFeature(Level level, BlockPos pos, TerrainProfile profile) {
-        int posY = pos.getY();
-
-        // Check local neighborhood (5-block radius)
-        int higherCount = 0;
-        int lowerCount = 0;
-        int totalChecked = 0;
-
-        for (int x = -5; x <= 5; x += 2) {
-            for (int z = -5; z <= 5; z += 2) {
-                if (x == 0 && z == 0) continue;
-
-                BlockPos neighbor = pos.offset(x, 0, z);
-                BlockPos neighborSurface = TerrainUtils.findSurface(level, neighbor);
-                if (neighborSurface == null) continue;
-
-                int neighborY = neighborSurface.getY();
-                if (neighborY > posY) higherCount++;
-                if (neighborY < posY) lowerCount++;
-                totalChecked++;
-            }
-        }
-
-        if (totalChecked == 0) return false;
-
-        // Feature detection: More aggressive to preserve terrain
-        double higherRatio = (double) higherCount / totalChecked;
-        double lowerRatio = (double) lowerCount / totalChecked;
-
-        // Is a peak if 50%+ neighbors are lower (more aggressive)
-        boolean isPeak = lowerRatio > 0.5;
-
-        // Is a valley if 50%+ neighbors are higher
-        boolean isValley = higherRatio > 0.5;
-
-        // Is part of steep/varied terrain if mixed elevations
-        boolean isSteep = (higherCount > 0 && lowerCount > 0) &&
-                         ((higherRatio > 0.3 && lowerRatio > 0.3));
-
-        return isPeak || isValley || isSteep;
-    }
-
-    private static boolean isVegetation(BlockState state) {
+    static boolean isVegetation(BlockState state) {
         if (state.isAir()) return false;
-        Block block = state.getBlock();
+        // Name lookups build strings - resolve each block once
+        return VEGETATION.computeIfAbsent(state.getBlock(), IntelligentNaturalizeStrategy::isVegetationBlock);
+    }
 
+    private static boolean isVegetationBlock(Block block) {
         return block == Blocks.GRASS || block == Blocks.TALL_GRASS ||
                block == Blocks.FERN || block == Blocks.LARGE_FERN ||
                block == Blocks.SEAGRASS || block == Blocks.KELP ||
@@ -356,39 +505,4 @@ public class IntelligentNaturalizeStrategy {
                block == Blocks.SAND ||
                block == Blocks.MUD;
     }
-
-    /**
-     * Repair overhangs - fill air gaps under solid blocks for natural terrain
-     */
-    private static int repairOverhangs(Level level, List<BlockPos> positions, TerrainProfile profile) {
-        int blocksFilled = 0;
-
-        for (BlockPos pos : positions) {
-            BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
-            if (surfacePos == null) continue;
-
-            // Check downward from surface for air gaps (overhangs)
-            for (int y = 1; y <= 10; y++) {
-                BlockPos checkPos = surfacePos.below(y);
-                BlockState state = level.getBlockState(checkPos);
-                BlockState above = level.getBlockState(checkPos.above());
-
-                // Found air with solid block above = overhang/floating block
-                if (state.isAir() && !above.isAir() && above.getBlock() != Blocks.WATER) {
-                    // Fill with CONSISTENCY-AWARE subsurface block (stone mountains get stone!)
-                    Block fillBlock = profile.getConsistencyAwareSubsurfaceBlock();
-                    level.setBlock(checkPos, fillBlock.defaultBlockState(), 3);
-                    blocksFilled++;
-                }
-
-                // Stop at first solid block (no gaps below this)
-                if (!state.isAir() && state.getBlock() != Blocks.WATER) {
-                    break;
-                }
-            }
-        }
-
-        return blocksFilled;
-    }
 }
-
@@ -1,165 +1,443 @@
 package com.wcholmes.landscaper.server.analysis;
 
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
 import com.wcholmes.landscaper.common.util.TerrainUtils;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.tags.BlockTags;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.*;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 /**
  * Analyzes terrain in a 3-chunk (48-block) radius to extract natural characteristics.
  * Larger sample area provides better statistical accuracy for terrain replication.
+ *
+ * <p>Sampling is coarse-to-fine: the every-2-blocks sample lattice is split into 8x8-block tiles
+ * (strata). Every tile gets one sample, then only tiles whose samples disagree with their
+ * neighbours are refined, and sampling stops as soon as the palette and height estimates are
+ * within {@link NaturalizationConfig#getAnalysisTolerance()}. Each sample stands in for the
+ * unsampled columns of its tile, so statistics stay comparable to a full pass.
  */
 public class TerrainAnalyzer {
+    private static final Logger LOGGER = LogManager.getLogger();
 
     private static final int CHUNK_RADIUS = 48; // 3 chunks = 48 blocks radius
-    private static final int SAMPLE_DENSITY = 2; // Sample every 2 blocks
+    private static final int SAMPLE_DENSITY = 2; // Sample every 2 blocks (finest level)
+
+    // Coarse-to-fine sampling lattice
+    private static final int SITES = CHUNK_RADIUS * 2 / SAMPLE_DENSITY + 1; // 49 sample sites per side
+    private static final int TILE = 4;                                      // Sites per tile side (8 blocks)
+    private static final int TILES = (SITES + TILE - 1) / TILE;             // 13 tiles per side
+
+    // Site offsets within a tile (dx, dz pairs) added at each refinement level: stride 8, 4, then 2 blocks
+    private static final int[][] LEVELS = {
+        {0, 0},
+        {2, 0, 0, 2, 2, 2},
+        {1, 0, 3, 0, 0, 1, 1, 1, 2, 1, 3, 1, 1, 2, 3, 2, 0, 3, 1, 3, 2, 3, 3, 3}
+    };
+
+    private static final double CONFIDENCE_Z = 1.96;     // 95% confidence bounds
+    private static final double MAX_HEIGHT_ERROR = 1.0;  // Blocks of uncertainty allowed in the mean height
+    private static final int TILE_HEIGHT_SPREAD = 2;     // Height spread that marks a tile as varied
+
+    /**
+     * One sampled column, kept until the end so it can be weighted by how much of its tile it stands for.
+     */
+    private static class ColumnSample {
+        final int surfaceY;
+        final double distanceWeight;
+        Block rawSurface;                   // Block found at the surface, null for air/water
+        Block surfaceBlock;                 // Natural surface it stands for (see resolveSurfaceBlocks)
+        final Block[] subsurface = new Block[9];
+        int waterBlocks;
+        int flowingWater;
+        int beachSand;
+        int swampMud;
+        final List<Block> vegetation = new ArrayList<>(2);
+        boolean snow;
+
+        ColumnSample(int surfaceY, double distanceWeight) {
+            this.surfaceY = surfaceY;
+            this.distanceWeight = distanceWeight;
+        }
+    }
 
     /**
      * Analyze terrain around a center position.
      * Samples 48-block radius (3 chunks) in all directions.
      */
-    public static TerrainProfile analyze(Level level, BlockPos center) {
-        Map<Block, Double> surfaceBlockWeights = new HashMap<>(); // Changed to weighted
-        Map<Block, Double> subsurfaceBlockWeights = new HashMap<>(); // Changed to weighted
-        Map<Block, Integer> vegetationCounts = new HashMap<>();
-        List<Integer> heights = new ArrayList<>();
-        Map<Integer, Integer> heightDistribution = new HashMap<>();
-        List<Double> slopes = new ArrayList<>();
-        int waterBlockCount = 0;
-        int totalBlocks = 0;
-        int beachSandCount = 0;
-        int flowingWaterCount = 0;
-        int swampMudCount = 0;
+    public static TerrainProfile analyze(TerrainView terrain, BlockPos center) {
+        double tolerance = NaturalizationConfig.getAnalysisTolerance();
+
+        ColumnSample[] samples = new ColumnSample[SITES * SITES];
+        boolean[] visited = new boolean[SITES * SITES];
+        int[] tileSamples = new int[TILES * TILES];
+        boolean[] refine = new boolean[TILES * TILES];
+        Arrays.fill(refine, true);
+
+        int visitedCount = 0;
+        for (int level = 0; level < LEVELS.length; level++) {
+            for (int tile = 0; tile < refine.length; tile++) {
+                if (!refine[tile]) continue;
+                int tileX = (tile % TILES) * TILE;
+                int tileZ = (tile / TILES) * TILE;
+
+                // A tile skipped earlier also catches up on the coarser levels it missed
+                for (int l = 0; l <= level; l++) {
+                    int[] offsets = LEVELS[l];
+                    for (int i = 0; i < offsets.length; i += 2) {
+                        int siteX = tileX + offsets[i];
+                        int siteZ = tileZ + offsets[i + 1];
+                        if (siteX >= SITES || siteZ >= SITES) continue;
+
+                        int site = siteZ * SITES + siteX;
+                        if (visited[site]) continue;
+                        visited[site] = true;
+                        visitedCount++;
+                        tileSamples[tile]++;
+                        samples[site] = sampleColumn(terrain, center,
+                            siteX * SAMPLE_DENSITY - CHUNK_RADIUS, siteZ * SAMPLE_DENSITY - CHUNK_RADIUS,
+                            nearbySurfaceY(samples, siteX, siteZ, center.getY()));
+                    }
+                }
+            }
 
-        // Snow tracking
-        List<Integer> snowElevations = new ArrayList<>();
-        boolean hasSnowLayers = false;
+            resolveSurfaceBlocks(samples, tileSamples);
+            if (level == LEVELS.length - 1) break;
+            if (tolerance > 0) {
+                if (hasConverged(samples, tileSamples, tolerance)) break;
+                if (!markVariedTiles(samples, refine)) break;
+            }
+        }
 
-        // Sample the chunk area with DISTANCE WEIGHTING
-        for (int x = -CHUNK_RADIUS; x <= CHUNK_RADIUS; x += SAMPLE_DENSITY) {
-            for (int z = -CHUNK_RADIUS; z <= CHUNK_RADIUS; z += SAMPLE_DENSITY) {
-                BlockPos samplePos = center.offset(x, 0, z);
-                BlockPos surface = TerrainUtils.findSurface(level, samplePos);
-                if (surface == null) continue;
-
-                // Calculate distance weight - closer blocks weighted MORE heavily
-                double distance = Math.sqrt(x * x + z * z);
-                double distanceWeight = Math.exp(-(distance * distance) / (2 * 20 * 20)); // Gaussian
-                // Closer = weight ~1.0, at edge = weight ~0.1
-
-                int surfaceY = surface.getY();
-                heights.add(surfaceY);
-                heightDistribution.merge(surfaceY, 1, Integer::sum);
-
-                // Sample SURFACE block with DISTANCE WEIGHTING
-                BlockState surfaceState = level.getBlockState(surface);
-                Block surfaceBlock = surfaceState.getBlock();
-
-                // NEVER sample water as surface block!
-                if (!surfaceState.isAir() && surfaceBlock != Blocks.WATER) {
-                    // Check if this is a NATURAL surface block or exposed subsurface
-                    if (isNaturalSurfaceBlock(surfaceBlock)) {
-                        // Natural surface - count with distance weight
-                        surfaceBlockWeights.merge(surfaceBlock, distanceWeight, Double::sum);
-                    } else {
-                        // Exposed subsurface (stone outcrop, ore, etc.)
-                        // Look at neighbors to find what SHOULD be the surface
-                        Block naturalSurface = findNaturalSurfaceNearby(level, surface);
-                        if (naturalSurface != null) {
-                            surfaceBlockWeights.merge(naturalSurface, distanceWeight, Double::sum);
-                        } else {
-                            // No natural surface nearby - this IS the natural surface (stone mountain)
-                            surfaceBlockWeights.merge(surfaceBlock, distanceWeight, Double::sum);
-                        }
+        LOGGER.debug("Terrain analysis sampled {} of {} columns", visitedCount, SITES * SITES);
+        return buildProfile(samples, tileSamples);
+    }
+
+    /**
+     * Surface Y of the closest sampled site on the same row or column (within a tile's reach),
+     * to start the next column's search from; {@code fallbackY} if none has been sampled.
+     */
+    private static int nearbySurfaceY(ColumnSample[] samples, int siteX, int siteZ, int fallbackY) {
+        for (int r = 1; r <= TILE; r++) {
+            for (int n = 0; n < 4; n++) {
+                int sx = siteX + (n == 0 ? -r : n == 1 ? r : 0);
+                int sz = siteZ + (n == 2 ? -r : n == 3 ? r : 0);
+                if (sx < 0 || sz < 0 || sx >= SITES || sz >= SITES) continue;
+                ColumnSample sample = samples[sz * SITES + sx];
+                if (sample != null) return sample.surfaceY;
+            }
+        }
+        return fallbackY;
+    }
+
+    /**
+     * Read one column: surface block, subsurface layers and vegetation/snow above.
+     * The surface search starts at {@code nearY}, a nearby sample's surface.
+     */
+    private static ColumnSample sampleColumn(TerrainView terrain, BlockPos center, int x, int z, int nearY) {
+        int columnX = center.getX() + x;
+        int columnZ = center.getZ() + z;
+        int surfaceY = TerrainUtils.findSurfaceYNear(terrain, columnX, nearY, columnZ);
+        if (surfaceY == TerrainUtils.NO_SURFACE) return null;
+
+        // Calculate distance weight - closer blocks weighted MORE heavily
+        double distance = Math.sqrt(x * x + z * z);
+        double distanceWeight = Math.exp(-(distance * distance) / (2 * 20 * 20)); // Gaussian
+        // Closer = weight ~1.0, at edge = weight ~0.1
+
+        ColumnSample sample = new ColumnSample(surfaceY, distanceWeight);
+
+        // Sample SURFACE block
+        BlockState surfaceState = terrain.getBlockState(columnX, surfaceY, columnZ);
+        Block surfaceBlock = surfaceState.getBlock();
+
+        // NEVER sample water as surface block!
+        // Exposed subsurface is resolved against the other samples once sampling is done
+        if (!surfaceState.isAir() && surfaceBlock != Blocks.WATER) {
+            sample.rawSurface = surfaceBlock;
+        }
+
+        // Sample SUBSURFACE blocks (y=1-9) - layers below.
+        // A section filled with one state (solid stone, open air) is known without reading it.
+        BlockState uniform = null;
+        for (int y = 1; y < 10; y++) {
+            int blockY = surfaceY - y;
+            if (y == 1 || (blockY & 15) == 15) uniform = terrain.getUniformState(columnX, blockY, columnZ);
+            BlockState state = uniform != null ? uniform : terrain.getBlockState(columnX, blockY, columnZ);
+            Block block = state.getBlock();
+
+            if (!state.isAir()) {
+                sample.subsurface[y - 1] = block;
+
+                if (block == Blocks.WATER) {
+                    sample.waterBlocks++;
+                    if (!state.getFluidState().isSource()) {
+                        sample.flowingWater++;
                     }
                 }
 
-                // Sample SUBSURFACE blocks (y=1-9) - layers below
-                for (int y = 1; y < 10; y++) {
-                    BlockPos blockPos = surface.below(y);
-                    BlockState state = level.getBlockState(blockPos);
-                    Block block = state.getBlock();
+                if (block == Blocks.SAND && surfaceY < 70) sample.beachSand++;
+                if (block == Blocks.MUD) sample.swampMud++;
+            }
+        }
 
-                    if (!state.isAir()) {
-                        subsurfaceBlockWeights.merge(block, distanceWeight, Double::sum);
-                        totalBlocks++;
+        // Analyze vegetation, snow, and trees
+        for (int y = 1; y <= 10; y++) { // Extended to detect trees
+            int blockY = surfaceY + y;
+            if (y == 1 || (blockY & 15) == 0) uniform = terrain.getUniformState(columnX, blockY, columnZ);
+            BlockState state = uniform != null ? uniform : terrain.getBlockState(columnX, blockY, columnZ);
+            Block block = state.getBlock();
 
-                        if (block == Blocks.WATER) {
-                            waterBlockCount++;
-                            if (!state.getFluidState().isSource()) {
-                                flowingWaterCount++;
-                            }
-                        }
+            // Check for snow layers
+            if (block == Blocks.SNOW || block == Blocks.POWDER_SNOW) {
+                sample.snow = true;
+            }
 
-                        if (block == Blocks.SAND && surfaceY < 70) beachSandCount++;
-                        if (block == Blocks.MUD) swampMudCount++;
-                    }
+            // Detect tree logs (indicates trees present)
+            if (isTreeLog(block)) {
+                // Count corresponding sapling type (1x weight - trees are already dense)
+                Block sapling = getSaplingFromLog(block);
+                if (sapling != null) {
+                    sample.vegetation.add(sapling);
                 }
+            }
+
+            if (isVegetation(state)) {
+                sample.vegetation.add(block);
+            }
+        }
 
-                // Analyze vegetation, snow, and trees
-                for (int y = 1; y <= 10; y++) { // Extended to detect trees
-                    BlockState state = level.getBlockState(surface.above(y));
-                    Block block = state.getBlock();
+        return sample;
+    }
 
-                    // Check for snow layers
-                    if (block == Blocks.SNOW || block == Blocks.POWDER_SNOW) {
-                        hasSnowLayers = true;
-                        snowElevations.add(surfaceY);
-                    }
+    /**
+     * Share of its tile's lattice sites that one sample stands for (1.0 when the tile is fully sampled).
+     */
+    private static double areaWeight(int site, int[] tileSamples) {
+        int siteX = site % SITES;
+        int siteZ = site / SITES;
+        int tileX = siteX / TILE;
+        int tileZ = siteZ / TILE;
+        int width = Math.min(TILE, SITES - tileX * TILE);
+        int depth = Math.min(TILE, SITES - tileZ * TILE);
+        return (double) (width * depth) / tileSamples[tileZ * TILES + tileX];
+    }
 
-                    // Detect tree logs (indicates trees present)
-                    if (isTreeLog(block)) {
-                        // Count corresponding sapling type (1x weight - trees are already dense)
-                        Block sapling = getSaplingFromLog(block);
-                        if (sapling != null) {
-                            vegetationCounts.merge(sapling, 1, Integer::sum);
-                        }
-                    }
+    /**
+     * True once every surface block frequency and the mean height are known to within tolerance
+     * (normal-approximation bounds on the Kish effective sample size of the weighted samples).
+     */
+    private static boolean hasConverged(ColumnSample[] samples, int[] tileSamples, double tolerance) {
+        Map<Block, Double> blockWeights = new HashMap<>();
+        double surfaceWeight = 0.0;
+        double surfaceWeightSq = 0.0;
+        double heightWeight = 0.0;
+        double heightWeightSq = 0.0;
+        double heightSum = 0.0;
+        double heightSumSq = 0.0;
+
+        for (int site = 0; site < samples.length; site++) {
+            ColumnSample sample = samples[site];
+            if (sample == null) continue;
+            double area = areaWeight(site, tileSamples);
+
+            heightWeight += area;
+            heightWeightSq += area * area;
+            heightSum += area * sample.surfaceY;
+            heightSumSq += area * sample.surfaceY * sample.surfaceY;
+
+            if (sample.surfaceBlock != null) {
+                double weight = area * sample.distanceWeight;
+                blockWeights.merge(sample.surfaceBlock, weight, Double::sum);
+                surfaceWeight += weight;
+                surfaceWeightSq += weight * weight;
+            }
+        }
+        if (heightWeight == 0 || surfaceWeight == 0) return false;
+
+        double surfaceSamples = surfaceWeight * surfaceWeight / surfaceWeightSq;
+        for (double weight : blockWeights.values()) {
+            double p = weight / surfaceWeight;
+            if (CONFIDENCE_Z * Math.sqrt(p * (1 - p) / surfaceSamples) > tolerance) return false;
+        }
 
-                    if (isVegetation(state)) {
-                        vegetationCounts.merge(block, 1, Integer::sum);
+        double heightSamples = heightWeight * heightWeight / heightWeightSq;
+        double mean = heightSum / heightWeight;
+        double variance = Math.max(0.0, heightSumSq / heightWeight - mean * mean);
+        return CONFIDENCE_Z * Math.sqrt(variance / heightSamples) <= MAX_HEIGHT_ERROR;
+    }
+
+    /**
+     * Flag tiles whose samples, or the samples of the tiles around them, disagree on surface block,
+     * snow or water, or spread over more than a couple of blocks of height.
+     *
+     * @return true if any tile needs refining
+     */
+    private static boolean markVariedTiles(ColumnSample[] samples, boolean[] refine) {
+        boolean any = false;
+        for (int tileZ = 0; tileZ < TILES; tileZ++) {
+            for (int tileX = 0; tileX < TILES; tileX++) {
+                ColumnSample first = null;
+                int minY = Integer.MAX_VALUE;
+                int maxY = Integer.MIN_VALUE;
+                boolean varied = false;
+
+                // The tile itself plus its 4 neighbours
+                for (int n = 0; n < 5 && !varied; n++) {
+                    int tx = tileX + (n == 1 ? -1 : n == 2 ? 1 : 0);
+                    int tz = tileZ + (n == 3 ? -1 : n == 4 ? 1 : 0);
+                    if (tx < 0 || tz < 0 || tx >= TILES || tz >= TILES) continue;
+
+                    int endX = Math.min(SITES, (tx + 1) * TILE);
+                    int endZ = Math.min(SITES, (tz + 1) * TILE);
+                    for (int siteZ = tz * TILE; siteZ < endZ && !varied; siteZ++) {
+                        for (int siteX = tx * TILE; siteX < endX; siteX++) {
+                            ColumnSample sample = samples[siteZ * SITES + siteX];
+                            if (sample == null) continue;
+
+                            minY = Math.min(minY, sample.surfaceY);
+                            maxY = Math.max(maxY, sample.surfaceY);
+                            if (first == null) {
+                                first = sample;
+                            } else if (sample.surfaceBlock != first.surfaceBlock || sample.snow != first.snow
+                                || (sample.waterBlocks > 0) != (first.waterBlocks > 0)
+                                || maxY - minY > TILE_HEIGHT_SPREAD) {
+                                varied = true;
+                                break;
+                            }
+                        }
                     }
                 }
 
-                // Calculate slope
-                if (x % 4 == 0 && z % 4 == 0) {
-                    slopes.add(calculateSlope(level, surface));
-                }
+                refine[tileZ * TILES + tileX] = varied;
+                any |= varied;
+            }
+        }
+        return any;
+    }
+
+    /**
+     * Sampled surface heights as a lattice in offsets from the analysis center (unsampled sites have none).
+     */
+    private static HeightField buildHeightField(ColumnSample[] samples) {
+        int[] heights = new int[samples.length];
+        for (int site = 0; site < samples.length; site++) {
+            heights[site] = samples[site] != null ? samples[site].surfaceY : HeightField.NO_SURFACE;
+        }
+        return new HeightField(-CHUNK_RADIUS, -CHUNK_RADIUS, SITES, SAMPLE_DENSITY, heights);
+    }
+
+    /**
+     * Aggregate the samples, each weighted by the share of its tile it stands for.
+     */
+    private static TerrainProfile buildProfile(ColumnSample[] samples, int[] tileSamples) {
+        Map<Block, Double> surfaceBlockWeights = new HashMap<>(); // Changed to weighted
+        Map<Block, Double> subsurfaceBlockWeights = new HashMap<>(); // Changed to weighted
+        Map<Block, Double> vegetationWeights = new HashMap<>();
+        Map<Integer, Double> heightWeights = new HashMap<>();
+        int columns = 0;
+        double heightSum = 0;
+        double areaSum = 0;
+        double slopeSum = 0;
+        double slopeArea = 0;
+        double vegetationTotal = 0;
+        double waterBlockCount = 0;
+        double totalBlocks = 0;
+        double beachSandCount = 0;
+        double flowingWaterCount = 0;
+        double swampMudCount = 0;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        // Slopes come from the sampled heights themselves - no extra surface searches
+        HeightField heightField = buildHeightField(samples);
+
+        // Snow tracking
+        int snowThreshold = 9999; // No snow found - set very high
+        boolean hasSnowLayers = false;
+
+        for (int site = 0; site < samples.length; site++) {
+            ColumnSample sample = samples[site];
+            if (sample == null) continue;
+            double area = areaWeight(site, tileSamples);
+            int surfaceY = sample.surfaceY;
+
+            columns++;
+            minY = Math.min(minY, surfaceY);
+            maxY = Math.max(maxY, surfaceY);
+            heightSum += area * surfaceY;
+            areaSum += area;
+            heightWeights.merge(surfaceY, area, Double::sum);
+
+            // SURFACE block with DISTANCE WEIGHTING
+            if (sample.surfaceBlock != null) {
+                surfaceBlockWeights.merge(sample.surfaceBlock, area * sample.distanceWeight, Double::sum);
+            }
+
+            for (Block block : sample.subsurface) {
+                if (block == null) continue;
+                subsurfaceBlockWeights.merge(block, area * sample.distanceWeight, Double::sum);
+                totalBlocks += area;
+            }
+            waterBlockCount += area * sample.waterBlocks;
+            flowingWaterCount += area * sample.flowingWater;
+            beachSandCount += area * sample.beachSand;
+            swampMudCount += area * sample.swampMud;
+
+            for (Block block : sample.vegetation) {
+                vegetationWeights.merge(block, area, Double::sum);
+                vegetationTotal += area;
+            }
+
+            if (sample.snow) {
+                hasSnowLayers = true;
+                snowThreshold = Math.min(snowThreshold, surfaceY);
             }
+
+            slopeSum += area * heightField.getSlope(site % SITES * SAMPLE_DENSITY - CHUNK_RADIUS,
+                site / SITES * SAMPLE_DENSITY - CHUNK_RADIUS);
+            slopeArea += area;
         }
 
         // Statistics
-        int minY = heights.stream().min(Integer::compare).orElse(64);
-        int maxY = heights.stream().max(Integer::compare).orElse(64);
-        int averageY = (int) heights.stream().mapToInt(Integer::intValue).average().orElse(64);
-        int medianY = calculateMedian(heights);
+        if (columns == 0) {
+            minY = 64;
+            maxY = 64;
+        }
+        int averageY = areaSum > 0 ? (int) (heightSum / areaSum) : 64;
+        int medianY = calculateMedian(samples, tileSamples, columns);
 
         int surfaceBlocks = Math.max(1, (CHUNK_RADIUS * 2 / SAMPLE_DENSITY) * (CHUNK_RADIUS * 2 / SAMPLE_DENSITY));
-        double vegetationDensity = vegetationCounts.values().stream().mapToInt(Integer::intValue).sum() / (double) surfaceBlocks;
+        double vegetationDensity = vegetationTotal / surfaceBlocks;
 
-        double avgSlope = slopes.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        double avgSlope = slopeArea > 0 ? slopeSum / slopeArea : 0.0;
         double smoothness = 1.0 / (1.0 + avgSlope);
 
         TerrainProfile.WaterType waterType = detectWaterType(
-            waterBlockCount, totalBlocks, beachSandCount, flowingWaterCount, swampMudCount, averageY
+            (int) Math.round(waterBlockCount), (int) Math.round(totalBlocks), (int) Math.round(beachSandCount),
+            (int) Math.round(flowingWaterCount), (int) Math.round(swampMudCount), averageY
         );
 
-        double waterDensity = totalBlocks > 0 ? (double) waterBlockCount / totalBlocks : 0.0;
-
-        // Calculate snow elevation threshold (minimum Y where snow was found)
-        int snowThreshold = snowElevations.isEmpty() ?
-            9999 : // No snow found - set very high
-            snowElevations.stream().min(Integer::compare).orElse(9999);
+        double waterDensity = totalBlocks > 0 ? waterBlockCount / totalBlocks : 0.0;
 
         // Convert weighted maps to integer maps (for compatibility)
         Map<Block, Integer> surfaceBlockCounts = convertWeightsToIntegers(surfaceBlockWeights);
         Map<Block, Integer> subsurfaceBlockCounts = convertWeightsToIntegers(subsurfaceBlockWeights);
 
+        // Vegetation and height counts are estimated column counts, not distance weights
+        Map<Block, Integer> vegetationCounts = new HashMap<>();
+        vegetationWeights.forEach((block, count) -> vegetationCounts.put(block, (int) Math.round(count)));
+        Map<Integer, Integer> heightDistribution = new HashMap<>();
+        heightWeights.forEach((y, count) -> heightDistribution.put(y, (int) Math.round(count)));
+
         return new TerrainProfile(
             surfaceBlockCounts, subsurfaceBlockCounts, vegetationCounts, vegetationDensity,
             minY, maxY, averageY, medianY, heightDistribution,
@@ -184,32 +462,38 @@ public class TerrainAnalyzer {
                block.getName().getString().contains("sapling");
     }
 
-    private static double calculateSlope(Level level, BlockPos surface) {
-        int centerY = surface.getY();
-        double totalDiff = 0;
-        int count = 0;
-
-        for (BlockPos neighbor : new BlockPos[]{
-            surface.north(), surface.south(), surface.east(), surface.west()
-        }) {
-            BlockPos neighborSurface = TerrainUtils.findSurface(level, neighbor);
-            if (neighborSurface != null) {
-                totalDiff += Math.abs(neighborSurface.getY() - centerY);
-                count++;
+    /**
+     * Area-weighted median surface height (the plain median when every tile is fully sampled).
+     */
+    private static int calculateMedian(ColumnSample[] samples, int[] tileSamples, int columns) {
+        if (columns == 0) return 64;
+
+        int[] heights = new int[columns];
+        double[] areas = new double[columns];
+        Integer[] order = new Integer[columns];
+        double total = 0;
+        int i = 0;
+        for (int site = 0; site < samples.length; site++) {
+            if (samples[site] == null) continue;
+            heights[i] = samples[site].surfaceY;
+            areas[i] = areaWeight(site, tileSamples);
+            total += areas[i];
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, Comparator.comparingInt(index -> heights[index]));
+
+        double half = total / 2;
+        double cumulative = 0;
+        for (int k = 0; k < order.length; k++) {
+            cumulative += areas[order[k]];
+            if (Math.abs(cumulative - half) < 1e-9 && k + 1 < order.length) {
+                // Exactly half the weight below - average with the next height, like an even-sized median
+                return (heights[order[k]] + heights[order[k + 1]]) / 2;
             }
+            if (cumulative > half) return heights[order[k]];
         }
-
-        return count > 0 ? totalDiff / count : 0.0;
-    }
-
-    private static int calculateMedian(List<Integer> values) {
-        if (values.isEmpty()) return 64;
-        List<Integer> sorted = new ArrayList<>(values);
-        Collections.sort(sorted);
-        int middle = sorted.size() / 2;
-        return sorted.size() % 2 == 0 ?
-            (sorted.get(middle - 1) + sorted.get(middle)) / 2 :
-            sorted.get(middle);
+        return heights[order[order.length - 1]];
     }
 
     private static TerrainProfile.WaterType detectWaterType(
@@ -302,38 +586,69 @@ public class TerrainAnalyzer {
     }
 
     /**
-     * Find natural surface blocks in nearby area (for exposed subsurface detection)
-     * Returns null if surrounding area is also exposed subsurface (true stone mountain)
+     * Resolve every sample's surface block. Natural surface blocks stand for themselves; exposed
+     * subsurface (stone outcrop, ore, etc.) takes the natural surface block that dominates the
+     * sampled columns within CHUNK_RADIUS of it, and stays as-is when there is none (true stone
+     * mountain). One summed-area table per natural block type makes each lookup four reads per type.
      */
-    private static Block findNaturalSurfaceNearby(Level level, BlockPos center) {
-        Map<Block, Integer> nearbyNaturalBlocks = new HashMap<>();
-
-        // Check CHUNK_RADIUS (48 blocks - 3 chunks) for natural surface blocks
-        for (int x = -CHUNK_RADIUS; x <= CHUNK_RADIUS; x += SAMPLE_DENSITY * 2) {
-            for (int z = -CHUNK_RADIUS; z <= CHUNK_RADIUS; z += SAMPLE_DENSITY * 2) {
-                if (x == 0 && z == 0) continue;
-
-                BlockPos checkPos = center.offset(x, 0, z);
-                BlockState state = level.getBlockState(checkPos);
-                Block block = state.getBlock();
-
-                if (isNaturalSurfaceBlock(block)) {
-                    nearbyNaturalBlocks.merge(block, 1, Integer::sum);
+    private static void resolveSurfaceBlocks(ColumnSample[] samples, int[] tileSamples) {
+        // Natural types present, in registry order so ties resolve the same way every run
+        List<Block> types = new ArrayList<>();
+        for (ColumnSample sample : samples) {
+            if (sample != null && sample.rawSurface != null && isNaturalSurfaceBlock(sample.rawSurface)
+                && !types.contains(sample.rawSurface)) {
+                types.add(sample.rawSurface);
+            }
+        }
+        types.sort(Comparator.comparingInt(BuiltInRegistries.BLOCK::getId));
+
+        // Area-weighted natural surface coverage, as inclusive prefix sums with a zero border row/column
+        int stride = SITES + 1;
+        double[][] coverage = new double[types.size()][stride * stride];
+        for (int site = 0; site < samples.length; site++) {
+            ColumnSample sample = samples[site];
+            if (sample == null || sample.rawSurface == null) continue;
+            int type = types.indexOf(sample.rawSurface);
+            if (type >= 0) {
+                coverage[type][(site / SITES + 1) * stride + site % SITES + 1] = areaWeight(site, tileSamples);
+            }
+        }
+        for (double[] table : coverage) {
+            for (int z = 1; z <= SITES; z++) {
+                for (int x = 1; x <= SITES; x++) {
+                    int i = z * stride + x;
+                    table[i] += table[i - 1] + table[i - stride] - table[i - stride - 1];
                 }
             }
         }
 
-        // If we found natural surface blocks nearby, return the most common one
-        if (!nearbyNaturalBlocks.isEmpty()) {
-            return nearbyNaturalBlocks.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
-        }
+        int reach = CHUNK_RADIUS / SAMPLE_DENSITY;
+        for (int site = 0; site < samples.length; site++) {
+            ColumnSample sample = samples[site];
+            if (sample == null) continue;
+            Block raw = sample.rawSurface;
+            if (raw == null || isNaturalSurfaceBlock(raw)) {
+                sample.surfaceBlock = raw;
+                continue;
+            }
 
-        // No natural surface nearby - exposed subsurface IS the surface here
-        return null;
+            int x0 = Math.max(0, site % SITES - reach);
+            int z0 = Math.max(0, site / SITES - reach);
+            int x1 = Math.min(SITES, site % SITES + reach + 1);
+            int z1 = Math.min(SITES, site / SITES + reach + 1);
+
+            Block best = raw;
+            double bestCoverage = 0;
+            for (int type = 0; type < coverage.length; type++) {
+                double[] table = coverage[type];
+                double covered = table[z1 * stride + x1] - table[z0 * stride + x1]
+                    - table[z1 * stride + x0] + table[z0 * stride + x0];
+                if (covered > bestCoverage + 1e-9) {
+                    bestCoverage = covered;
+                    best = types.get(type);
+                }
+            }
+            sample.surfaceBlock = best;
+        }
     }
 }
-
-
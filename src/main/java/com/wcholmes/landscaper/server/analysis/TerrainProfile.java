@@ -1,16 +1,22 @@
 package com.wcholmes.landscaper.server.analysis;
 
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.FallingBlock;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Stores comprehensive terrain analysis data from a sampled area.
  */
 public class TerrainProfile {
 
+    // Palette order: most common first; ties go to the lowest registry id so the result does not depend on map order
+    private static final Comparator<Map.Entry<Block, Integer>> MOST_COMMON = Map.Entry.<Block, Integer>comparingByValue()
+        .thenComparing(entry -> BuiltInRegistries.BLOCK.getId(entry.getKey()), Comparator.reverseOrder());
+
     private final Map<Block, Integer> surfaceBlockPalette;
     private final Map<Block, Integer> subsurfaceBlockPalette;
     private final Map<Block, Double> surfaceBlockFrequency;
@@ -29,6 +35,12 @@ public class TerrainProfile {
     private final boolean hasSnow;
     private final int snowElevationThreshold;
 
+    // Cumulative weight tables for the random getters, built once per profile
+    private final WeightedTable surfaceTable;
+    private final WeightedTable subsurfaceTable;
+    private final WeightedTable vegetationTable;
+    private final Block dominantSurfaceBlock;
+
     public enum WaterType {
         NONE, BEACH, RIVER, LAKE, SWAMP
     }
@@ -71,6 +83,76 @@ public class TerrainProfile {
                 surfaceBlockFrequency.put(entry.getKey(), (double) entry.getValue() / totalSurfaceBlocks);
             }
         }
+
+        this.surfaceTable = WeightedTable.of(surfaceBlockPalette, true);
+        this.subsurfaceTable = WeightedTable.of(subsurfaceBlockPalette, true);
+        this.vegetationTable = WeightedTable.of(vegetationPalette, false);
+        this.dominantSurfaceBlock = findDominantSurfaceBlock(surfaceBlockPalette);
+    }
+
+    /**
+     * Blocks and cumulative weights in registry-id order. HashMap iteration order depends on identity
+     * hash codes, so drawing from a sorted table is what makes a seeded pick repeat across runs.
+     */
+    private static final class WeightedTable {
+        final Block[] blocks;
+        final int[] cumulative;
+        final int totalWeight;
+
+        private WeightedTable(Block[] blocks, int[] cumulative, int totalWeight) {
+            this.blocks = blocks;
+            this.cumulative = cumulative;
+            this.totalWeight = totalWeight;
+        }
+
+        static WeightedTable of(Map<Block, Integer> palette, boolean excludeFluids) {
+            List<Map.Entry<Block, Integer>> entries = new ArrayList<>();
+            for (Map.Entry<Block, Integer> entry : palette.entrySet()) {
+                Block block = entry.getKey();
+                // NEVER return water or air - filter them out
+                if (excludeFluids && (block == Blocks.WATER || block == Blocks.AIR || block == Blocks.LAVA)) continue;
+                if (entry.getValue() <= 0) continue;
+                entries.add(entry);
+            }
+            entries.sort(Comparator.comparingInt(e -> BuiltInRegistries.BLOCK.getId(e.getKey())));
+
+            Block[] blocks = new Block[entries.size()];
+            int[] cumulative = new int[entries.size()];
+            int total = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = entries.get(i).getKey();
+                total += entries.get(i).getValue();
+                cumulative[i] = total;
+            }
+            return new WeightedTable(blocks, cumulative, total);
+        }
+
+        Block pick(RandomGenerator random, Block defaultBlock) {
+            if (totalWeight == 0) return defaultBlock;
+            int roll = random.nextInt(totalWeight);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) return blocks[i];
+            }
+            return defaultBlock;
+        }
+    }
+
+    // Ties go to the lowest registry id so the result does not depend on map order
+    private static Block findDominantSurfaceBlock(Map<Block, Integer> palette) {
+        Block dominant = null;
+        int best = -1;
+        for (Map.Entry<Block, Integer> entry : palette.entrySet()) {
+            Block block = entry.getKey();
+            String name = block.getName().getString();
+            if (name.contains("air") || name.contains("water")) continue;
+
+            int count = entry.getValue();
+            if (count > best || (count == best && BuiltInRegistries.BLOCK.getId(block) < BuiltInRegistries.BLOCK.getId(dominant))) {
+                dominant = block;
+                best = count;
+            }
+        }
+        return dominant != null ? dominant : Blocks.GRASS_BLOCK;
     }
 
     // Getters
@@ -95,21 +177,28 @@ public class TerrainProfile {
     public int getSnowElevationThreshold() { return snowElevationThreshold; }
 
     public Block getDominantSurfaceBlock() {
-        return surfaceBlockPalette.entrySet().stream()
-            .filter(e -> !e.getKey().getName().getString().contains("air") &&
-                        !e.getKey().getName().getString().contains("water"))
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(Blocks.GRASS_BLOCK);
+        return dominantSurfaceBlock;
     }
 
     public Block getDominantVegetation() {
         return vegetationPalette.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
+            .max(MOST_COMMON)
             .map(Map.Entry::getKey)
             .orElse(null);
     }
 
+    /**
+     * Most common subsurface block that doesn't fall (no sand or gravel) - STONE if there is none.
+     */
+    public Block getStableSubsurfaceBlock() {
+        return subsurfaceBlockPalette.entrySet().stream()
+            .filter(entry -> !(entry.getKey() instanceof FallingBlock)
+                && entry.getKey() != Blocks.WATER && entry.getKey() != Blocks.AIR)
+            .max(MOST_COMMON)
+            .map(Map.Entry::getKey)
+            .orElse(Blocks.STONE);
+    }
+
     /**
      * Calculate surface block consistency (0.0 = diverse, 1.0 = mono-block)
      * Returns the frequency of the dominant block
@@ -142,14 +231,14 @@ public class TerrainProfile {
      * - Homogeneous areas (>90% one type): Always use dominant block
      * - Diverse areas: Use weighted random
      */
-    public Block getConsistencyAwareSurfaceBlock() {
+    public Block getConsistencyAwareSurfaceBlock(RandomGenerator random) {
         Block selected;
         if (isHomogeneous()) {
             // Mono-block area - use dominant block EXCLUSIVELY (no variation)
             selected = getDominantSurfaceBlock();
         } else {
             // Diverse area - use weighted random
-            selected = getWeightedRandomSurfaceBlock();
+            selected = getWeightedRandomSurfaceBlock(random);
         }
 
         // NEVER EVER return water, air, or lava!
@@ -163,15 +252,15 @@ public class TerrainProfile {
     /**
      * Get weighted random SURFACE block (for top layer)
      */
-    public Block getWeightedRandomSurfaceBlock() {
-        return getWeightedRandom(surfaceBlockPalette, Blocks.GRASS_BLOCK);
+    public Block getWeightedRandomSurfaceBlock(RandomGenerator random) {
+        return surfaceTable.pick(random, Blocks.GRASS_BLOCK);
     }
 
     /**
      * Get weighted random SUBSURFACE block (for layers below)
      */
-    public Block getWeightedRandomSubsurfaceBlock() {
-        return getWeightedRandom(subsurfaceBlockPalette, Blocks.DIRT);
+    public Block getWeightedRandomSubsurfaceBlock(RandomGenerator random) {
+        return subsurfaceTable.pick(random, Blocks.DIRT);
     }
 
     /**
@@ -180,7 +269,7 @@ public class TerrainProfile {
      * - Very homogeneous grass → use dirt
      * - Diverse → use weighted random
      */
-    public Block getConsistencyAwareSubsurfaceBlock() {
+    public Block getConsistencyAwareSubsurfaceBlock(RandomGenerator random) {
         if (isVeryHomogeneous()) {
             // Match subsurface to dominant surface block
             Block dominant = getDominantSurfaceBlock();
@@ -210,58 +299,12 @@ public class TerrainProfile {
             return dominant;
         } else {
             // Diverse area - use weighted random (already filters water)
-            return getWeightedRandomSubsurfaceBlock();
-        }
-    }
-
-    private Block getWeightedRandom(Map<Block, Integer> palette, Block defaultBlock) {
-        // NEVER return water or air - filter them out
-        Map<Block, Integer> filteredPalette = new HashMap<>();
-        for (Map.Entry<Block, Integer> entry : palette.entrySet()) {
-            Block block = entry.getKey();
-            if (block != Blocks.WATER && block != Blocks.AIR && block != Blocks.LAVA) {
-                filteredPalette.put(block, entry.getValue());
-            }
-        }
-
-        int totalWeight = filteredPalette.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalWeight == 0) return defaultBlock;
-
-        int random = ThreadLocalRandom.current().nextInt(totalWeight);
-        int cumulative = 0;
-
-        for (Map.Entry<Block, Integer> entry : filteredPalette.entrySet()) {
-            cumulative += entry.getValue();
-            if (random < cumulative) {
-                Block selected = entry.getKey();
-                // Final safety check
-                if (selected == Blocks.WATER || selected == Blocks.AIR || selected == Blocks.LAVA) {
-                    return defaultBlock;
-                }
-                return selected;
-            }
+            return getWeightedRandomSubsurfaceBlock(random);
         }
-
-        return defaultBlock;
     }
 
-    public Block getWeightedRandomVegetation() {
-        if (vegetationPalette.isEmpty()) return null;
-
-        int totalWeight = vegetationPalette.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalWeight == 0) return null;
-
-        int random = ThreadLocalRandom.current().nextInt(totalWeight);
-        int cumulative = 0;
-
-        for (Map.Entry<Block, Integer> entry : vegetationPalette.entrySet()) {
-            cumulative += entry.getValue();
-            if (random < cumulative) {
-                return entry.getKey();
-            }
-        }
-
-        return vegetationPalette.keySet().iterator().next();
+    public Block getWeightedRandomVegetation(RandomGenerator random) {
+        return vegetationTable.pick(random, null);
     }
 
     @Override
@@ -4,11 +4,17 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.wcholmes.landscaper.common.config.NaturalizationConfig;
-import com.wcholmes.landscaper.common.util.TerrainUtils;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.terrain.LevelTerrainView;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
+import com.wcholmes.landscaper.common.util.PackedPositions;
+import com.wcholmes.landscaper.common.util.Shape;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
 import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
 import com.wcholmes.landscaper.server.analysis.TerrainProfile;
 import com.wcholmes.landscaper.server.analysis.IntelligentNaturalizeStrategy;
 import com.wcholmes.landscaper.server.analysis.AccuracyValidator;
+import com.wcholmes.landscaper.server.replay.OperationRecorder;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
@@ -39,8 +45,10 @@ public class LandscaperCommand {
         ServerLevel level = (ServerLevel) player.level();
         int radius = IntegerArgumentType.getInteger(ctx, "radius");
 
+        TerrainView terrain = new LevelTerrainView(level);
+
         BlockPos pos = player.blockPosition();
-        BlockPos surfacePos = TerrainUtils.findSurface(level, pos);
+        BlockPos surfacePos = terrain.findSurface(pos);
 
         if (surfacePos == null) {
             source.sendFailure(Component.literal("Could not find valid surface"));
@@ -48,7 +56,7 @@ public class LandscaperCommand {
         }
 
         source.sendSuccess(() -> Component.literal("§6Analyzing 3-chunk radius (48 blocks)..."), false);
-        TerrainProfile profile = TerrainAnalyzer.analyze(level, surfacePos);
+        TerrainProfile profile = TerrainAnalyzer.analyze(terrain, surfacePos);
 
         String consistency = profile.isHomogeneous() ? "§aHOMOGENEOUS" : "§eDIVERSE";
         source.sendSuccess(() -> Component.literal(
@@ -62,14 +70,22 @@ public class LandscaperCommand {
             "§6Applying natural style to §e" + radius + "§6 block radius..."
         ), false);
 
-        java.util.List<BlockPos> targetPositions = NaturalizationConfig.isCircleShape() ?
-            getCirclePositions(surfacePos, radius) :
-            getSquarePositions(surfacePos, radius);
+        PackedPositions targetPositions = Shape.of(NaturalizationConfig.isCircleShape()).positions(surfacePos, radius);
+
+        AccuracyValidator.Snapshot before = AccuracyValidator.captureSnapshot(terrain, targetPositions);
+
+        // Every operation gets its own seed - the seed plus the input region reproduce it exactly
+        long seed = level.getRandom().nextLong();
 
-        AccuracyValidator.Snapshot before = AccuracyValidator.captureSnapshot(level, targetPositions);
+        // Opt-in: capture the input region so this operation can be replayed offline
+        OperationRecorder.Capture recording = OperationRecorder.begin(level, surfacePos, radius,
+            NaturalizationConfig.isCircleShape(), NaturalizationConfig.getMessyEdgeExtension(), seed);
 
+        ChangeSet changes = new ChangeSet();
         int blocksChanged = IntelligentNaturalizeStrategy.apply(
             level,
+            changes,
+            new TerrainRandom(seed),
             surfacePos,
             radius,
             profile,
@@ -77,7 +93,9 @@ public class LandscaperCommand {
             NaturalizationConfig.getMessyEdgeExtension()
         );
 
-        AccuracyValidator.Snapshot after = AccuracyValidator.captureSnapshot(level, targetPositions);
+        OperationRecorder.finish(recording, changes, blocksChanged);
+
+        AccuracyValidator.Snapshot after = AccuracyValidator.captureSnapshot(terrain, targetPositions);
         AccuracyValidator.ValidationResult validation = AccuracyValidator.validate(before, after, profile);
 
         String paletteComparison = AccuracyValidator.compareBlockPalettes(profile, after);
@@ -97,26 +115,4 @@ public class LandscaperCommand {
 
         return 1;
     }
-
-    private static java.util.List<BlockPos> getCirclePositions(BlockPos center, int radius) {
-        java.util.List<BlockPos> positions = new java.util.ArrayList<>();
-        for (int x = -radius; x <= radius; x++) {
-            for (int z = -radius; z <= radius; z++) {
-                if (Math.sqrt(x * x + z * z) <= radius) {
-                    positions.add(center.offset(x, 0, z));
-                }
-            }
-        }
-        return positions;
-    }
-
-    private static java.util.List<BlockPos> getSquarePositions(BlockPos center, int radius) {
-        java.util.List<BlockPos> positions = new java.util.ArrayList<>();
-        for (int x = -radius; x <= radius; x++) {
-            for (int z = -radius; z <= radius; z++) {
-                positions.add(center.offset(x, 0, z));
-            }
-        }
-        return positions;
-    }
 }
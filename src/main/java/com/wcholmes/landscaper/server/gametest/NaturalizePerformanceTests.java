@@ -0,0 +1,149 @@
+package com.wcholmes.landscaper.server.gametest;
+
+import com.mojang.logging.LogUtils;
+import com.wcholmes.landscaper.Landscaper;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.terrain.LevelTerrainView;
+import com.wcholmes.landscaper.common.terrain.TerrainView;
+import com.wcholmes.landscaper.common.util.PackedPositions;
+import com.wcholmes.landscaper.common.util.Shape;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import com.wcholmes.landscaper.server.analysis.AccuracyValidator;
+import com.wcholmes.landscaper.server.analysis.IntelligentNaturalizeStrategy;
+import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
+import com.wcholmes.landscaper.server.analysis.TerrainProfile;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless performance regression suite: naturalizes reproducible fixtures at several radii and checks
+ * wall time and block writes against {@link PerformanceBaseline}. Run with {@code ./gradlew runGameTestServer}.
+ *
+ * <p>Fixtures are pasted far away from the test structures so nearby tests never see each other's terrain.
+ */
+@GameTestHolder(Landscaper.MODID)
+@PrefixGameTestTemplate(false)
+public class NaturalizePerformanceTests {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String TEMPLATE = "empty";
+    private static final String BATCH = "landscaper_perf";
+    private static final int TIMEOUT = 2400;
+
+    private static final long SEED = 42L;              // Fixture and operation seed - write counts are exact
+    private static final int FIXTURE_RADIUS = 100;    // Capture reach (48 + 8 kernel margin) + surface searches
+    private static final int FIXTURE_X = 8192;
+    private static final int FIXTURE_Z = 8192;
+    private static final int FIXTURE_SPACING = 256;
+
+    private static final int[] RADII = {8, 16, 32};
+    private static final int RUNS = 3;                // Best time of several runs irons out JIT warmup
+    private static final int MESSY_EDGE = 2;
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = TIMEOUT)
+    public static void plains(GameTestHelper helper) {
+        run(helper, TerrainFixture.Preset.PLAINS);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = TIMEOUT)
+    public static void beach(GameTestHelper helper) {
+        run(helper, TerrainFixture.Preset.BEACH);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = TIMEOUT)
+    public static void stoneMountain(GameTestHelper helper) {
+        run(helper, TerrainFixture.Preset.STONE_MOUNTAIN);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = TIMEOUT)
+    public static void swamp(GameTestHelper helper) {
+        run(helper, TerrainFixture.Preset.SWAMP);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = TIMEOUT)
+    public static void snowyPeak(GameTestHelper helper) {
+        run(helper, TerrainFixture.Preset.SNOWY_PEAK);
+    }
+
+    private static void run(GameTestHelper helper, TerrainFixture.Preset preset) {
+        ServerLevel level = helper.getLevel();
+        TerrainFixture fixture = new TerrainFixture(preset, SEED, FIXTURE_RADIUS);
+        BlockPos origin = new BlockPos(FIXTURE_X + preset.ordinal() * FIXTURE_SPACING, 0, FIXTURE_Z);
+        fixture.pasteInto(level, origin);
+
+        BlockPos start = fixture.center().offset(origin.getX(), 0, origin.getZ());
+        List<String> failures = new ArrayList<>();
+
+        for (int radius : RADII) {
+            String name = preset.name().toLowerCase() + "_r" + radius;
+            PerformanceBaseline.CaseResult result = measure(level, fixture, origin, start, radius);
+            if (result == null) {
+                helper.fail("Could not find fixture surface for " + name);
+                return;
+            }
+
+            LOGGER.info("[perf] {}: {}ms (analyze {}ms), {} writes, accuracy {}",
+                name, result.millis, result.analyze_millis, result.writes, String.format("%.0f%%", result.accuracy * 100));
+
+            String failure = PerformanceBaseline.check(name, result);
+            if (failure != null) failures.add(failure);
+        }
+
+        if (!failures.isEmpty()) {
+            helper.fail(String.join("; ", failures));
+            return;
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Naturalize the fixture RUNS times, restoring it after each run.
+     */
+    private static PerformanceBaseline.CaseResult measure(ServerLevel level, TerrainFixture fixture, BlockPos origin,
+                                                          BlockPos start, int radius) {
+        PerformanceBaseline.CaseResult result = new PerformanceBaseline.CaseResult();
+        result.millis = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            TerrainView terrain = new LevelTerrainView(level);
+
+            long startTime = System.nanoTime();
+            BlockPos surfacePos = terrain.findSurface(start);
+            if (surfacePos == null) return null;
+            TerrainProfile profile = TerrainAnalyzer.analyze(terrain, surfacePos);
+            long analyzed = System.nanoTime();
+
+            PackedPositions targetPositions = Shape.CIRCLE.positions(surfacePos, radius);
+            AccuracyValidator.Snapshot before = AccuracyValidator.captureSnapshot(terrain, targetPositions);
+
+            long applyStart = System.nanoTime();
+            int reported = IntelligentNaturalizeStrategy.apply(level, new ChangeSet(), new TerrainRandom(SEED),
+                surfacePos, radius, profile, true, MESSY_EDGE);
+            long finished = System.nanoTime();
+
+            AccuracyValidator.Snapshot after = AccuracyValidator.captureSnapshot(terrain, targetPositions);
+            AccuracyValidator.ValidationResult validation = AccuracyValidator.validate(before, after, profile);
+
+            // Restoring the fixture rewrites exactly the blocks naturalize changed
+            int writes = fixture.pasteInto(level, origin);
+
+            long millis = ((analyzed - startTime) + (finished - applyStart)) / 1_000_000L;
+            if (millis < result.millis) {
+                result.millis = millis;
+                result.analyze_millis = (analyzed - startTime) / 1_000_000L;
+            }
+            result.writes = Math.max(result.writes, writes);
+            result.reported_changes = Math.max(result.reported_changes, reported);
+            result.accuracy = validation.overallScore;
+        }
+        return result;
+    }
+}
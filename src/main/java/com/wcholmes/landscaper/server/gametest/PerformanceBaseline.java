@@ -0,0 +1,125 @@
+package com.wcholmes.landscaper.server.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stored timing/write budgets for the naturalize performance game tests, plus the results of the current run.
+ *
+ * <p>The baseline file is read from {@code -Dlandscaper.gametest.baseline} and every measured case is written to
+ * {@code -Dlandscaper.gametest.results}. To accept new numbers, copy the "cases" of the results file into the baseline.
+ */
+public class PerformanceBaseline {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final String BASELINE_PROPERTY = "landscaper.gametest.baseline";
+    private static final String RESULTS_PROPERTY = "landscaper.gametest.results";
+
+    private static BaselineData baseline;
+    private static final Map<String, CaseResult> results = new TreeMap<>();
+
+    /**
+     * One measured (fixture, radius) case.
+     */
+    public static class CaseResult {
+        public long millis;             // Best wall time of analyze + apply over all runs
+        public long analyze_millis;
+        public int writes;              // Blocks that differ from the fixture afterwards (worst run)
+        public int reported_changes;    // What the strategy itself reported
+        public double accuracy;
+
+        public CaseResult() {}
+    }
+
+    public static class BaselineData {
+        public String description = "Naturalize performance budgets. A case fails when millis > baseline * time_tolerance + time_slack_ms, or writes > baseline * writes_tolerance. Cases without an entry are only recorded.";
+        public double time_tolerance = 1.25;
+        public long time_slack_ms = 25;
+        public double writes_tolerance = 1.05;
+        public Map<String, CaseResult> cases = new TreeMap<>();
+
+        public BaselineData() {}
+    }
+
+    /**
+     * Compare a measured case against its budget and record it for the results file.
+     *
+     * @return Failure message, or null if the case is within budget (or has no budget yet)
+     */
+    public static synchronized String check(String name, CaseResult result) {
+        results.put(name, result);
+        writeResults();
+
+        BaselineData data = getBaseline();
+        CaseResult expected = data.cases.get(name);
+        if (expected == null) {
+            LOGGER.warn("No performance baseline for {} - recorded {}ms, {} writes", name, result.millis, result.writes);
+            return null;
+        }
+
+        long timeBudget = (long) (expected.millis * data.time_tolerance) + data.time_slack_ms;
+        if (result.millis > timeBudget) {
+            return String.format("%s took %dms, budget %dms (baseline %dms)", name, result.millis, timeBudget, expected.millis);
+        }
+
+        int writeBudget = (int) Math.ceil(expected.writes * data.writes_tolerance);
+        if (result.writes > writeBudget) {
+            return String.format("%s wrote %d blocks, budget %d (baseline %d)", name, result.writes, writeBudget, expected.writes);
+        }
+
+        if (result.millis < expected.millis / 2) {
+            LOGGER.info("{} is well under its baseline ({}ms vs {}ms) - consider updating the baseline", name, result.millis, expected.millis);
+        }
+        return null;
+    }
+
+    private static BaselineData getBaseline() {
+        if (baseline != null) return baseline;
+
+        baseline = new BaselineData();
+        String location = System.getProperty(BASELINE_PROPERTY);
+        if (location == null) {
+            LOGGER.warn("{} not set - performance tests will only record results", BASELINE_PROPERTY);
+            return baseline;
+        }
+
+        Path path = Paths.get(location);
+        try {
+            if (Files.exists(path)) {
+                BaselineData loaded = GSON.fromJson(Files.readString(path), BaselineData.class);
+                if (loaded != null) {
+                    if (loaded.cases == null) loaded.cases = new TreeMap<>();
+                    baseline = loaded;
+                }
+                LOGGER.info("Loaded {} performance baselines from {}", baseline.cases.size(), path);
+            } else {
+                LOGGER.warn("Performance baseline {} not found - recording only", path);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to read performance baseline {}", path, e);
+        }
+        return baseline;
+    }
+
+    private static void writeResults() {
+        Path path = Paths.get(System.getProperty(RESULTS_PROPERTY, "gametest-perf-results.json"));
+        BaselineData data = new BaselineData();
+        data.cases = results;
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Files.writeString(path, GSON.toJson(data));
+        } catch (IOException e) {
+            LOGGER.error("Failed to write performance results {}", path, e);
+        }
+    }
+}
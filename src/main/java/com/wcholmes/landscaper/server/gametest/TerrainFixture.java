@@ -0,0 +1,230 @@
+package com.wcholmes.landscaper.server.gametest;
+
+import com.wcholmes.landscaper.common.terrain.DenseTerrainView;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible synthetic terrain used by the game tests and the JMH benchmarks.
+ * The same preset, seed and size always produce exactly the same blocks.
+ *
+ * <p>Fixture coordinates are centered on (0, 0); {@link #pasteInto} copies them into a live level.
+ */
+public class TerrainFixture extends DenseTerrainView {
+
+    public static final int MIN_Y = 32;
+    public static final int HEIGHT = 128;
+    public static final int SEA_LEVEL = 62;
+
+    public enum Preset {
+        //            base amp  surface              subsurface        shore          rocky  snowLine veg
+        PLAINS(        66,   3, Blocks.GRASS_BLOCK,  Blocks.DIRT,      Blocks.SAND,   0.02,  999,     0.15),
+        BEACH(         62,   5, Blocks.SAND,         Blocks.SANDSTONE, Blocks.SAND,   0.00,  999,     0.00),
+        STONE_MOUNTAIN(90,  30, Blocks.STONE,        Blocks.STONE,     Blocks.GRAVEL, 1.00,  999,     0.05),
+        SWAMP(         62,   2, Blocks.GRASS_BLOCK,  Blocks.DIRT,      Blocks.MUD,    0.00,  999,     0.20),
+        SNOWY_PEAK(   100,  26, Blocks.STONE,        Blocks.STONE,     Blocks.GRAVEL, 1.00,  100,     0.00);
+
+        final int baseHeight;
+        final int amplitude;
+        final Block surface;
+        final Block subsurface;
+        final Block shore;
+        final double rockiness;
+        final int snowLine;
+        final double vegetation;
+
+        Preset(int baseHeight, int amplitude, Block surface, Block subsurface, Block shore,
+               double rockiness, int snowLine, double vegetation) {
+            this.baseHeight = baseHeight;
+            this.amplitude = amplitude;
+            this.surface = surface;
+            this.subsurface = subsurface;
+            this.shore = shore;
+            this.rockiness = rockiness;
+            this.snowLine = snowLine;
+            this.vegetation = vegetation;
+        }
+    }
+
+    private final Preset preset;
+    private final int radius;
+    private final int[] surfaceHeights;
+
+    /**
+     * Generate a fixture covering x/z in [-radius, radius].
+     */
+    public TerrainFixture(Preset preset, long seed, int radius) {
+        super(-radius, MIN_Y, -radius, radius * 2 + 1, HEIGHT, radius * 2 + 1);
+        this.preset = preset;
+        this.radius = radius;
+        this.surfaceHeights = new int[getSizeX() * getSizeZ()];
+        generate(seed);
+    }
+
+    public Preset getPreset() {
+        return preset;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Fixture position at (0, 0) on its generated surface.
+     */
+    public BlockPos center() {
+        return new BlockPos(0, getSurfaceY(0, 0), 0);
+    }
+
+    public int getSurfaceY(int x, int z) {
+        return surfaceHeights[(x + radius) * getSizeZ() + (z + radius)];
+    }
+
+    private void generate(long seed) {
+        BlockState stone = Blocks.STONE.defaultBlockState();
+        BlockState surface = preset.surface.defaultBlockState();
+        BlockState subsurface = preset.subsurface.defaultBlockState();
+        BlockState shore = preset.shore.defaultBlockState();
+        BlockState water = Blocks.WATER.defaultBlockState();
+        BlockState snowBlock = Blocks.SNOW_BLOCK.defaultBlockState();
+        BlockState snow = Blocks.SNOW.defaultBlockState();
+        BlockState lowlandGrass = Blocks.GRASS_BLOCK.defaultBlockState();
+        BlockState mud = Blocks.MUD.defaultBlockState();
+        BlockState lilyPad = Blocks.LILY_PAD.defaultBlockState();
+        BlockState log = Blocks.OAK_LOG.defaultBlockState();
+        BlockState[] plants = {
+            Blocks.GRASS.defaultBlockState(), Blocks.TALL_GRASS.defaultBlockState(),
+            Blocks.DANDELION.defaultBlockState(), Blocks.POPPY.defaultBlockState()
+        };
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long noiseSeed = random.nextLong();
+
+        for (int x = -radius; x <= radius; x++) {
+            for (int z = -radius; z <= radius; z++) {
+                double n = fractalNoise(noiseSeed, x, z);
+                int surfaceY = clampY((int) Math.round(preset.baseHeight + n * preset.amplitude));
+                surfaceHeights[(x + radius) * getSizeZ() + (z + radius)] = surfaceY;
+
+                boolean shoreline = surfaceY <= SEA_LEVEL + 1;
+                boolean rocky = random.nextDouble() < preset.rockiness;
+                boolean lowland = surfaceY < preset.baseHeight - preset.amplitude / 3;
+
+                // Mountains keep grass on their lower slopes; swamps get mud patches
+                BlockState top = surface;
+                if (preset.rockiness >= 1.0 && lowland) top = lowlandGrass;
+                else if (preset == Preset.SWAMP && random.nextDouble() < 0.25) top = mud;
+                else if (rocky) top = stone;
+                if (shoreline) top = shore;
+                if (surfaceY >= preset.snowLine) top = snowBlock;
+
+                for (int y = MIN_Y; y <= surfaceY; y++) {
+                    int depth = surfaceY - y;
+                    BlockState state = depth == 0 ? top : depth <= 3 ? subsurface : stone;
+                    setBlockState(x, y, z, state);
+                }
+
+                // Fill water up to sea level (lily pads float on swamp water)
+                for (int y = surfaceY + 1; y <= SEA_LEVEL; y++) {
+                    setBlockState(x, y, z, water);
+                }
+                if (surfaceY < SEA_LEVEL) {
+                    if (preset == Preset.SWAMP && random.nextDouble() < 0.1) {
+                        setBlockState(x, SEA_LEVEL + 1, z, lilyPad);
+                    }
+                    continue;
+                }
+
+                // Snow caps, vegetation and the occasional tree trunk
+                if (surfaceY >= preset.snowLine) {
+                    setBlockState(x, surfaceY + 1, z, snow);
+                } else if (!shoreline && top == surface || top == lowlandGrass) {
+                    double roll = random.nextDouble();
+                    if (roll < preset.vegetation * 0.07) {
+                        for (int y = 1; y <= 5; y++) setBlockState(x, surfaceY + y, z, log);
+                    } else if (roll < preset.vegetation) {
+                        setBlockState(x, surfaceY + 1, z, plants[random.nextInt(plants.length)]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the fixture into a level, with fixture (0, 0) at {@code origin}'s x/z and fixture Y unchanged.
+     * Only blocks that differ from the fixture are written, so pasting again after an operation restores
+     * the terrain and the return value is exactly the number of blocks that operation changed.
+     * Writes skip neighbour updates - the fixture is consistent on its own.
+     *
+     * @return Number of blocks that differed from the fixture (and were rewritten)
+     */
+    public int pasteInto(Level level, BlockPos origin) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int written = 0;
+        for (int x = -radius; x <= radius; x++) {
+            for (int z = -radius; z <= radius; z++) {
+                for (int y = MIN_Y; y < MIN_Y + HEIGHT; y++) {
+                    pos.set(origin.getX() + x, y, origin.getZ() + z);
+                    BlockState state = getBlockState(x, y, z);
+                    if (level.getBlockState(pos) != state) {
+                        level.setBlock(pos, state, Block.UPDATE_CLIENTS);
+                        written++;
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Three-octave value noise in [-1, 1], hashed from the seed (no lattice tables to share).
+     */
+    private static double fractalNoise(long seed, int x, int z) {
+        double total = 0;
+        double amplitude = 1;
+        double norm = 0;
+        int cell = 32;
+        for (int octave = 0; octave < 3; octave++) {
+            total += valueNoise(seed + octave, x, z, cell) * amplitude;
+            norm += amplitude;
+            amplitude *= 0.5;
+            cell /= 2;
+        }
+        return total / norm;
+    }
+
+    private static double valueNoise(long seed, int x, int z, int cell) {
+        int cx = Math.floorDiv(x, cell);
+        int cz = Math.floorDiv(z, cell);
+        double fx = smooth((x - cx * (double) cell) / cell);
+        double fz = smooth((z - cz * (double) cell) / cell);
+        double a = lattice(seed, cx, cz);
+        double b = lattice(seed, cx + 1, cz);
+        double c = lattice(seed, cx, cz + 1);
+        double d = lattice(seed, cx + 1, cz + 1);
+        double top = a + (b - a) * fx;
+        double bottom = c + (d - c) * fx;
+        return top + (bottom - top) * fz;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lattice(long seed, int x, int z) {
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return ((h >>> 11) * 0x1.0p-53) * 2.0 - 1.0;
+    }
+
+    private static int clampY(int y) {
+        return Math.max(MIN_Y + 8, Math.min(MIN_Y + HEIGHT - 12, y));
+    }
+}
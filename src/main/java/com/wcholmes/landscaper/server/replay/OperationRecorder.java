@@ -0,0 +1,144 @@
+package com.wcholmes.landscaper.server.replay;
+
+import com.mojang.logging.LogUtils;
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.terrain.SnapshotTerrainView;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.storage.LevelResource;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in recorder for naturalize operations (config: record_operations).
+ *
+ * <p>{@link #begin} snapshots the input region before anything is written; {@link #finish} adds the
+ * change set and writes the recording to {@code <world>/landscaper/recordings} on the IO pool.
+ * Recordings replay without a server through {@link ReplayHarness}.
+ */
+public class OperationRecorder {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // Analysis samples 48 blocks out from the center
+    private static final int ANALYSIS_REACH = 48;
+    // Feature detection, the bilateral kernel and fluid escape checks reach a few blocks past the edge
+    private static final int KERNEL_MARGIN = 8;
+
+    /**
+     * Input state captured before an operation runs.
+     */
+    public static class Capture {
+        final ServerLevel level;
+        final BlockPos center;
+        final int radius;
+        final boolean circleShape;
+        final int messyEdge;
+        final long seed;
+        final int erosionStrength;
+        final double roughnessAmount;
+        final double analysisTolerance;
+        final boolean fusedPasses;
+        final int edgeBlendWidth;
+        final List<String> safeBlocks;
+        final SnapshotTerrainView region;
+        final long startNanos;
+
+        Capture(ServerLevel level, BlockPos center, int radius, boolean circleShape, int messyEdge, long seed,
+                int erosionStrength, double roughnessAmount, double analysisTolerance, boolean fusedPasses, int edgeBlendWidth,
+                List<String> safeBlocks, SnapshotTerrainView region) {
+            this.level = level;
+            this.center = center;
+            this.radius = radius;
+            this.circleShape = circleShape;
+            this.messyEdge = messyEdge;
+            this.seed = seed;
+            this.erosionStrength = erosionStrength;
+            this.roughnessAmount = roughnessAmount;
+            this.analysisTolerance = analysisTolerance;
+            this.fusedPasses = fusedPasses;
+            this.edgeBlendWidth = edgeBlendWidth;
+            this.safeBlocks = safeBlocks;
+            this.region = region;
+            this.startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Capture the input region if recording is enabled.
+     *
+     * @return The capture to pass to {@link #finish}, or null when recording is off
+     */
+    public static Capture begin(ServerLevel level, BlockPos center, int radius, boolean circleShape,
+                                int messyEdge, long seed) {
+        if (!NaturalizationConfig.isRecordingOperations()) return null;
+
+        // Full build height: neighbour-seeded surface searches follow slopes arbitrarily far from the center's Y.
+        // Sections are copied palette-compressed, so empty sky and uniform stone cost little.
+        SnapshotTerrainView region = SnapshotTerrainView.capture(level, center,
+            Math.max(ANALYSIS_REACH, radius + messyEdge) + KERNEL_MARGIN,
+            level.getMinBuildHeight(), level.getMaxBuildHeight() - 1);
+
+        List<String> safeBlocks = NaturalizationConfig.getSafeBlocks().blocks().stream()
+            .map(block -> BuiltInRegistries.BLOCK.getKey(block).toString())
+            .sorted()
+            .collect(Collectors.toList());
+
+        return new Capture(level, center, radius, circleShape, messyEdge, seed,
+            NaturalizationConfig.getErosionStrength(), NaturalizationConfig.getRoughnessAmount(),
+            NaturalizationConfig.getAnalysisTolerance(), NaturalizationConfig.isFusedPasses(), NaturalizationConfig.getEdgeBlendWidth(),
+            safeBlocks, region);
+    }
+
+    /**
+     * Complete a capture with the operation's output and write it out asynchronously.
+     */
+    public static void finish(Capture capture, ChangeSet changes, int blocksChanged) {
+        if (capture == null) return;
+
+        long applyNanos = System.nanoTime() - capture.startNanos;
+        OperationRecording recording = new OperationRecording(
+            "naturalize",
+            capture.level.dimension().location().toString(),
+            capture.level.getGameTime(),
+            capture.center,
+            capture.radius,
+            capture.circleShape,
+            capture.messyEdge,
+            capture.seed,
+            capture.erosionStrength,
+            capture.roughnessAmount,
+            capture.analysisTolerance,
+            capture.fusedPasses,
+            capture.edgeBlendWidth,
+            capture.safeBlocks,
+            capture.region,
+            changes,
+            blocksChanged,
+            applyNanos
+        );
+
+        Path directory = capture.level.getServer().getWorldPath(LevelResource.ROOT).resolve("landscaper").resolve("recordings");
+        String fileName = String.format("naturalize-%d-%d_%d_%d.nbt", recording.gameTime,
+            capture.center.getX(), capture.center.getY(), capture.center.getZ());
+
+        // Snapshot and change set are no longer touched by the server thread
+        Util.ioPool().execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                File file = directory.resolve(fileName).toFile();
+                recording.write(file);
+                LOGGER.info("Recorded naturalize operation ({} changes) to {}", changes.size(), file);
+            } catch (Exception e) {
+                LOGGER.error("Failed to write operation recording {}", fileName, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,149 @@
+package com.wcholmes.landscaper.server.replay;
+
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.terrain.SnapshotTerrainView;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to re-run one naturalize operation offline: the input region, the command
+ * parameters, the RNG seed, the height-noise and analysis settings, the safe block list and the change set the server produced.
+ */
+public class OperationRecording {
+    public static final int FORMAT_VERSION = 5;
+
+    public final String operation;
+    public final String dimension;
+    public final long gameTime;
+    public final BlockPos center;
+    public final int radius;
+    public final boolean circleShape;
+    public final int messyEdge;
+    public final long seed;
+    public final int erosionStrength;
+    public final double roughnessAmount;
+    public final double analysisTolerance;
+    public final boolean fusedPasses;
+    public final int edgeBlendWidth;
+    public final List<String> safeBlocks;
+    public final SnapshotTerrainView region;
+    public final ChangeSet changes;
+    public final int blocksChanged;
+    public final long applyNanos;
+
+    public OperationRecording(String operation, String dimension, long gameTime, BlockPos center, int radius,
+                              boolean circleShape, int messyEdge, long seed, int erosionStrength,
+                              double roughnessAmount, double analysisTolerance, boolean fusedPasses, int edgeBlendWidth,
+                              List<String> safeBlocks, SnapshotTerrainView region, ChangeSet changes,
+                              int blocksChanged, long applyNanos) {
+        this.operation = operation;
+        this.dimension = dimension;
+        this.gameTime = gameTime;
+        this.center = center;
+        this.radius = radius;
+        this.circleShape = circleShape;
+        this.messyEdge = messyEdge;
+        this.seed = seed;
+        this.erosionStrength = erosionStrength;
+        this.roughnessAmount = roughnessAmount;
+        this.analysisTolerance = analysisTolerance;
+        this.fusedPasses = fusedPasses;
+        this.edgeBlendWidth = edgeBlendWidth;
+        this.safeBlocks = safeBlocks;
+        this.region = region;
+        this.changes = changes;
+        this.blocksChanged = blocksChanged;
+        this.applyNanos = applyNanos;
+    }
+
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("Version", FORMAT_VERSION);
+        tag.putString("Operation", operation);
+        tag.putString("Dimension", dimension);
+        tag.putLong("GameTime", gameTime);
+
+        CompoundTag params = new CompoundTag();
+        params.putInt("X", center.getX());
+        params.putInt("Y", center.getY());
+        params.putInt("Z", center.getZ());
+        params.putInt("Radius", radius);
+        params.putBoolean("CircleShape", circleShape);
+        params.putInt("MessyEdge", messyEdge);
+        params.putLong("Seed", seed);
+        params.putInt("ErosionStrength", erosionStrength);
+        params.putDouble("RoughnessAmount", roughnessAmount);
+        params.putDouble("AnalysisTolerance", analysisTolerance);
+        params.putBoolean("FusedPasses", fusedPasses);
+        params.putInt("EdgeBlendWidth", edgeBlendWidth);
+        tag.put("Params", params);
+
+        ListTag blocks = new ListTag();
+        for (String block : safeBlocks) {
+            blocks.add(StringTag.valueOf(block));
+        }
+        tag.put("SafeBlocks", blocks);
+
+        tag.put("Region", region.save());
+        tag.put("Changes", changes.save());
+
+        CompoundTag stats = new CompoundTag();
+        stats.putInt("BlocksChanged", blocksChanged);
+        stats.putLong("ApplyNanos", applyNanos);
+        tag.put("Stats", stats);
+        return tag;
+    }
+
+    public static OperationRecording load(CompoundTag tag) {
+        int version = tag.getInt("Version");
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported recording version " + version);
+        }
+
+        CompoundTag params = tag.getCompound("Params");
+        ListTag blocks = tag.getList("SafeBlocks", Tag.TAG_STRING);
+        List<String> safeBlocks = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            safeBlocks.add(blocks.getString(i));
+        }
+        CompoundTag stats = tag.getCompound("Stats");
+
+        return new OperationRecording(
+            tag.getString("Operation"),
+            tag.getString("Dimension"),
+            tag.getLong("GameTime"),
+            new BlockPos(params.getInt("X"), params.getInt("Y"), params.getInt("Z")),
+            params.getInt("Radius"),
+            params.getBoolean("CircleShape"),
+            params.getInt("MessyEdge"),
+            params.getLong("Seed"),
+            params.getInt("ErosionStrength"),
+            params.getDouble("RoughnessAmount"),
+            params.getDouble("AnalysisTolerance"),
+            params.getBoolean("FusedPasses"),
+            params.getInt("EdgeBlendWidth"),
+            safeBlocks,
+            SnapshotTerrainView.load(tag.getCompound("Region")),
+            ChangeSet.load(tag.getCompound("Changes")),
+            stats.getInt("BlocksChanged"),
+            stats.getLong("ApplyNanos")
+        );
+    }
+
+    public void write(File file) throws IOException {
+        NbtIo.writeCompressed(save(), file);
+    }
+
+    public static OperationRecording read(File file) throws IOException {
+        return load(NbtIo.readCompressed(file));
+    }
+}
@@ -0,0 +1,98 @@
+package com.wcholmes.landscaper.server.replay;
+
+import com.wcholmes.landscaper.common.config.NaturalizationConfig;
+import com.wcholmes.landscaper.common.terrain.ChangeSet;
+import com.wcholmes.landscaper.common.util.TerrainRandom;
+import com.wcholmes.landscaper.server.analysis.IntelligentNaturalizeStrategy;
+import com.wcholmes.landscaper.server.analysis.TerrainAnalyzer;
+import com.wcholmes.landscaper.server.analysis.TerrainProfile;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Re-runs a recorded operation against its captured region - no server or world needed, only
+ * bootstrapped registries - and diffs the planned writes with the ones the server made.
+ */
+public class ReplayHarness {
+
+    public static class ReplayResult {
+        public final ChangeSet expected;
+        public final ChangeSet actual;
+        public final int missing;       // Recorded writes the replay did not make
+        public final int extra;         // Replay writes the recording does not have
+        public final int different;     // Same position, different state
+        public final long analyzeNanos;
+        public final long planNanos;
+
+        ReplayResult(ChangeSet expected, ChangeSet actual, int missing, int extra, int different,
+                     long analyzeNanos, long planNanos) {
+            this.expected = expected;
+            this.actual = actual;
+            this.missing = missing;
+            this.extra = extra;
+            this.different = different;
+            this.analyzeNanos = analyzeNanos;
+            this.planNanos = planNanos;
+        }
+
+        public boolean matches() {
+            return missing == 0 && extra == 0 && different == 0;
+        }
+
+        public String getSummary() {
+            return String.format("%d recorded / %d replayed writes: %d missing, %d extra, %d different (analyze %.1fms, plan %.1fms)",
+                expected.size(), actual.size(), missing, extra, different, analyzeNanos / 1e6, planNanos / 1e6);
+        }
+    }
+
+    /**
+     * Analyze and plan the recorded operation on its captured region.
+     * Uses the recorded safe block list, noise, analysis and pass settings so the replay sees the server's configuration.
+     */
+    public static ReplayResult replay(OperationRecording recording) {
+        NaturalizationConfig.setSafeBlocks(resolveBlocks(recording));
+        NaturalizationConfig.setHeightNoise(recording.erosionStrength, recording.roughnessAmount);
+        NaturalizationConfig.setAnalysisTolerance(recording.analysisTolerance);
+        NaturalizationConfig.setFusedPasses(recording.fusedPasses);
+        NaturalizationConfig.setEdgeBlendWidth(recording.edgeBlendWidth);
+
+        long start = System.nanoTime();
+        TerrainProfile profile = TerrainAnalyzer.analyze(recording.region, recording.center);
+        long analyzed = System.nanoTime();
+
+        ChangeSet actual = new ChangeSet();
+        IntelligentNaturalizeStrategy.plan(recording.region, actual, new TerrainRandom(recording.seed),
+            recording.center, recording.radius, profile, recording.circleShape, recording.messyEdge);
+        long planned = System.nanoTime();
+
+        return diff(recording.changes, actual, analyzed - start, planned - analyzed);
+    }
+
+    private static ReplayResult diff(ChangeSet expected, ChangeSet actual, long analyzeNanos, long planNanos) {
+        int[] counts = new int[3]; // missing, extra, different
+        expected.forEach((pos, state) -> {
+            BlockState replayed = actual.get(pos.asLong());
+            if (replayed == null) counts[0]++;
+            else if (replayed != state) counts[2]++;
+        });
+        actual.forEach((pos, state) -> {
+            if (expected.get(pos.asLong()) == null) counts[1]++;
+        });
+        return new ReplayResult(expected, actual, counts[0], counts[1], counts[2], analyzeNanos, planNanos);
+    }
+
+    private static Set<Block> resolveBlocks(OperationRecording recording) {
+        Set<Block> blocks = new HashSet<>();
+        for (String id : recording.safeBlocks) {
+            Block block = BuiltInRegistries.BLOCK.get(new ResourceLocation(id));
+            if (block != Blocks.AIR) blocks.add(block);
+        }
+        return blocks;
+    }
+}